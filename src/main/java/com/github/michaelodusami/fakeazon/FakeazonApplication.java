@@ -2,7 +2,9 @@ package com.github.michaelodusami.fakeazon;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableJpaRepositories
 @SpringBootApplication
 public class FakeazonApplication {
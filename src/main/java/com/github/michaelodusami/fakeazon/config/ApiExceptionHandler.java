@@ -0,0 +1,42 @@
+package com.github.michaelodusami.fakeazon.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.github.michaelodusami.fakeazon.security.PasswordHashingUnavailableException;
+
+/**
+ * The ApiExceptionHandler class maps cross-cutting exceptions to HTTP responses for every
+ * controller.
+ *
+ * Purpose:
+ * Handles failures that can surface from any endpoint, such as password hashing saturation
+ * during registration, login or password changes, in one place.
+ *
+ * Annotations:
+ * - @RestControllerAdvice: Applies these handlers to all REST controllers.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Answers 503 Service Unavailable with a `Retry-After` header when password hashing is
+     * saturated.
+     *
+     * @param exception the rejection raised by the password encoder.
+     * @return an empty 503 response.
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<Void> handlePasswordHashingUnavailable(PasswordHashingUnavailableException exception) {
+        long seconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.michaelodusami.fakeazon.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.security.UserDetails;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The CacheConfig class enables Spring's cache abstraction and backs it with Caffeine.
+ *
+ * Purpose:
+ * Profile reads and logins look the same user up over and over. Caching those lookups in
+ * memory keeps repeated reads off Postgres.
+ *
+ * Why It Matters:
+ * Caffeine bounds every cache by size with W-TinyLFU admission, which keeps frequently read
+ * users over one-off lookups, and expires entries after a TTL so a change made outside this
+ * instance is picked up eventually.
+ *
+ * Impact on the Application:
+ * - Caches user lookups by id and by email, and the login `UserDetails` by email.
+ * - Sized and expired by `fakeazon.user-cache.max-size` and `fakeazon.user-cache.ttl`.
+ * - Login details are loaded once per key however many requests miss at the same time, and
+ * entries still being read are reloaded in the background after `fakeazon.user-cache.refresh-after`.
+ * - Exports `cache.gets`, `cache.size`, `cache.evictions` and `cache.hit.ratio` tagged with the
+ * cache name. Entries are evicted on user mutations by `UserCacheInvalidator`.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Configuration
+@EnableCaching(proxyTargetClass = true) // Cached services are injected by class, e.g. CustomUserDetailsService
+public class CacheConfig {
+
+    /**
+     * Users keyed by id, as returned by `UserService.findById`.
+     */
+    public static final String USERS_BY_ID = "users.by-id";
+
+    /**
+     * Users keyed by lower-cased email, as returned by `UserService.findByEmail`.
+     */
+    public static final String USERS_BY_EMAIL = "users.by-email";
+
+    /**
+     * Login principals keyed by lower-cased email, as returned by
+     * `CustomUserDetailsService.loadUserByUsername`.
+     */
+    public static final String USER_DETAILS = "users.details";
+
+    /**
+     * Bean name of the key generator for methods taking a single email argument.
+     */
+    public static final String EMAIL_KEY_GENERATOR = "emailKeyGenerator";
+
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Configures the cache manager holding the user caches.
+     *
+     * Purpose:
+     * Creates the caches up front, so their metrics are registered at startup, and rejects
+     * null values so "no such user" results are never cached by accident. Users are stored as
+     * snapshots by `UserSnapshotCache`, so every hit returns a detached copy.
+     *
+     * Why It Matters:
+     * Every request authenticated from the database reads the login details cache. When a hot
+     * entry expires, all of its concurrent requests would miss and query the same user at once.
+     * That cache is therefore a loading cache: misses through `@Cacheable(sync = true)` are
+     * coalesced into one load per key, and an entry read after `refreshAfter` is reloaded on
+     * `refreshThreads` background threads while readers keep getting the current value. Only
+     * entries not read for a whole `ttl` expire and are loaded on the request path again.
+     *
+     * @param maxSize        the maximum number of entries of each cache.
+     * @param ttl            how long an entry lives after it was written.
+     * @param refreshAfter   how old a login details entry may get before a read reloads it.
+     * @param refreshThreads the number of threads reloading login details.
+     * @param userRepository the store login details are reloaded from.
+     * @param meterRegistry  the registry the hit ratios are published to.
+     * @return the Caffeine cache manager.
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(@Value("${fakeazon.user-cache.max-size:10000}") long maxSize,
+            @Value("${fakeazon.user-cache.ttl:PT10M}") Duration ttl,
+            @Value("${fakeazon.user-cache.refresh-after:PT5M}") Duration refreshAfter,
+            @Value("${fakeazon.user-cache.refresh-threads:2}") int refreshThreads,
+            UserRepository userRepository, MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                // Users are cached as immutable snapshots, so no two callers share an entity
+                return USERS_BY_ID.equals(name) || USERS_BY_EMAIL.equals(name)
+                        ? new UserSnapshotCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(USERS_BY_ID, USERS_BY_EMAIL));
+
+        // Reloads run on their own small pool so they cannot take every database connection
+        refreshExecutor = Executors.newFixedThreadPool(refreshThreads,
+                Thread.ofPlatform().name("user-cache-refresh-", 1).daemon().factory());
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refreshExecutor)
+                .recordStats()
+                // A user deleted since the entry was loaded reloads as null, which removes the entry
+                .build(email -> userRepository.findByEmail((String) email).map(UserDetails::new).orElse(null)));
+
+        // Hit, miss, size and eviction meters are bound by Spring Boot; the ratio is not among them
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+            Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .tag("cache", name)
+                    .description("The ratio of cache requests which were hits")
+                    .register(meterRegistry);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Stops the refresh threads when the application context closes.
+     */
+    @PreDestroy
+    public void shutdownRefreshExecutor() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Keys email lookups by the lower-cased email, matching the case-insensitive lookup.
+     *
+     * @return the key generator for methods taking a single email argument.
+     */
+    @Bean(EMAIL_KEY_GENERATOR)
+    public KeyGenerator emailKeyGenerator() {
+        return (target, method, params) -> emailKey((String) params[0]);
+    }
+
+    /**
+     * Normalizes an email into the key of the email-keyed caches.
+     *
+     * @param email the email address as given.
+     * @return the cache key.
+     */
+    public static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.michaelodusami.fakeazon.config;
+
+import java.time.Duration;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * The KafkaConfig class declares the Kafka topics this application uses.
+ *
+ * Purpose:
+ * Spring Boot's `KafkaAdmin` creates every declared `NewTopic` at startup when it is missing,
+ * so instances do not depend on the broker auto-creating topics with its own defaults.
+ *
+ * Impact on the Application:
+ * - Each topic is only declared when the feature using it is enabled.
+ * - Invalidations are only useful for seconds, so their topic keeps them for an hour at most.
+ * - User events keep the broker's default retention, so consumers can catch up after downtime.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Declares the topic user cache invalidations are published to.
+     *
+     * @param topic      the topic name.
+     * @param partitions the number of partitions.
+     * @return the topic definition.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "fakeazon.user-cache.invalidation.enabled", havingValue = "true")
+    public NewTopic userCacheInvalidationsTopic(
+            @Value("${fakeazon.user-cache.invalidation.topic:fakeazon.user-cache-invalidations}") String topic,
+            @Value("${fakeazon.user-cache.invalidation.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+
+    /**
+     * Declares the topic user lifecycle events are published to by `UserOutboxRelay`.
+     *
+     * @param topic      the topic name.
+     * @param partitions the number of partitions; events are keyed by user id.
+     * @return the topic definition.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "fakeazon.user-events.enabled", havingValue = "true")
+    public NewTopic userEventsTopic(@Value("${fakeazon.user-events.topic:fakeazon.user-events}") String topic,
+            @Value("${fakeazon.user-events.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.github.michaelodusami.fakeazon.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -12,7 +17,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -20,6 +24,11 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.security.AdaptivePasswordEncoderFactory;
+import com.github.michaelodusami.fakeazon.security.BoundedPasswordEncoder;
 import com.github.michaelodusami.fakeazon.security.CustomUserDetailsService;
 import com.github.michaelodusami.fakeazon.security.JwtAuthFilter;
 
@@ -89,21 +98,29 @@ public class SecurityConfig {
      * Impact:
      * - Public endpoints for user registration and login are accessible without
      * authentication.
+     * - Bulk user import and export are restricted to administrators.
      * - All other endpoints are protected and require valid JWT authentication.
      * - Stateless session management ensures scalability and removes server-side
      * session storage.
      *
-     * @param http the `HttpSecurity` object used to configure security settings.
+     * @param http                   the `HttpSecurity` object used to configure security settings.
+     * @param authenticationProvider the provider verifying user credentials.
      * @return a configured `SecurityFilterChain` object.
      * @throws Exception if an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            DaoAuthenticationProvider authenticationProvider) throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // Disables CSRF protection for stateless JWT-based authentication.
                 .cors(Customizer.withDefaults()) // Enables CORS with the defined CORS configuration.
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers("/v1/auth/register", "/v1/auth/login", "/v1/auth/register/admin").permitAll()
+                        // Streamed responses complete on an async dispatch of an already-authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/v1/auth/register", "/v1/auth/login", "/v1/auth/register/admin",
+                                "/v1/auth/refresh", "/v1/auth/.well-known/jwks.json").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/v1/users/import").hasAuthority(UserRole.ROLE_ADMIN.getRole())
+                        .requestMatchers(HttpMethod.GET, "/v1/users/export").hasAuthority(UserRole.ROLE_ADMIN.getRole())
                         .anyRequest().authenticated() // Protects all other endpoints.
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Enforces
@@ -111,7 +128,7 @@ public class SecurityConfig {
                                                                                                              // session
                                                                                                              // management.
                 )
-                .authenticationProvider(authenticationProvider()) // Configures custom authentication provider.
+                .authenticationProvider(authenticationProvider) // Configures custom authentication provider.
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class); // Adds JWT filter before
                                                                                              // default filters.
 
@@ -129,12 +146,31 @@ public class SecurityConfig {
      * - Protects user passwords from brute-force and rainbow table attacks.
      * - Ensures compatibility with Spring Security's default password encoding
      * requirements.
-     *
-     * @return a BCryptPasswordEncoder instance.
+     * - Runs hashing on a bounded pool so bursts cannot starve request threads;
+     * saturation is reported as 503 with `Retry-After`.
+     * - Hashes with BCrypt, Argon2 or PBKDF2, calibrated at startup to the target
+     * verification time; weaker stored hashes are upgraded on login.
+     *
+     * @param algorithm     the algorithm for new hashes: bcrypt, argon2 or pbkdf2.
+     * @param targetTime    the desired duration of one password verification.
+     * @param poolSize      the number of hashing threads; 0 uses one per CPU.
+     * @param queueCapacity the number of hashing calls allowed to wait.
+     * @param maxWait       the longest a request waits for a hashing result.
+     * @param retryAfter    the retry hint sent with 503 responses.
+     * @param meterRegistry the registry the pool metrics are published to.
+     * @return a BoundedPasswordEncoder wrapping the adaptive delegating encoder.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${fakeazon.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${fakeazon.password-hashing.target-time:PT0.25S}") Duration targetTime,
+            @Value("${fakeazon.password-hashing.pool-size:0}") int poolSize,
+            @Value("${fakeazon.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${fakeazon.password-hashing.max-wait:PT2S}") Duration maxWait,
+            @Value("${fakeazon.password-hashing.retry-after:PT1S}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(AdaptivePasswordEncoderFactory.create(algorithm, targetTime), threads,
+                queueCapacity, maxWait, retryAfter, meterRegistry);
     }
 
     /**
@@ -165,14 +201,18 @@ public class SecurityConfig {
      * Impact:
      * - Delegates authentication to the custom service for user validation.
      * - Ensures secure comparison of passwords using the password encoder.
+     * - Upgrades a stored hash that is below the current hashing policy after a
+     * successful login.
      *
+     * @param passwordEncoder the encoder used to verify passwords.
      * @return a configured `DaoAuthenticationProvider` instance.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService); // Re-hashes outdated hashes on login
         return authProvider;
     }
 
@@ -200,7 +240,7 @@ public class SecurityConfig {
                                                                                                    // methods.
         configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token")); // Allowed
                                                                                                          // headers.
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "Authorization")); // Headers exposed to clients.
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "Authorization", "X-Refresh-Token")); // Headers exposed to clients.
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration); // Applies the configuration to all endpoints.
         return source;
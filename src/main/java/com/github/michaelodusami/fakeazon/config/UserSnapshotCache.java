@@ -0,0 +1,86 @@
+package com.github.michaelodusami.fakeazon.config;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+/**
+ * The UserSnapshotCache class is a Caffeine cache of users that never hands out a shared
+ * `User` instance.
+ *
+ * Purpose:
+ * `User` is a mutable JPA entity. Caching the instance a lookup returned would share it between
+ * request threads while it may still belong to the persistence context of the request that
+ * loaded it, and a caller changing it would change what every other caller reads, without a
+ * database write.
+ *
+ * Why It Matters:
+ * Each cached user is stored as an immutable snapshot and every read builds a new, detached
+ * `User` from it. Callers may change the user they get like any unmanaged entity.
+ *
+ * Impact on the Application:
+ * - Backs `CacheConfig.USERS_BY_ID` and `CacheConfig.USERS_BY_EMAIL`.
+ * - A hit costs one small object copy instead of a query.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public class UserSnapshotCache extends CaffeineCache {
+
+    /**
+     * Constructs the UserSnapshotCache.
+     *
+     * @param name            the name of the cache.
+     * @param cache           the Caffeine cache holding the snapshots.
+     * @param allowNullValues whether null values are accepted and stored.
+     */
+    public UserSnapshotCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return super.toStoreValue(userValue instanceof User user ? UserSnapshot.of(user) : userValue);
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        Object value = super.fromStoreValue(storeValue);
+        return value instanceof UserSnapshot snapshot ? snapshot.toUser() : value;
+    }
+
+    /**
+     * The state of a user at the time it was cached.
+     */
+    private record UserSnapshot(Long id, String name, String email, String password, Set<UserRole> roles,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static UserSnapshot of(User user) {
+            EnumSet<UserRole> roles = EnumSet.noneOf(UserRole.class);
+            if (user.getRoles() != null) {
+                roles.addAll(user.getRoles());
+            }
+            return new UserSnapshot(user.getId(), user.getName(), user.getEmail(), user.getPassword(),
+                    Collections.unmodifiableSet(roles), user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .name(name)
+                    .email(email)
+                    .password(password)
+                    .roles(roles.isEmpty() ? EnumSet.noneOf(UserRole.class) : EnumSet.copyOf(roles))
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
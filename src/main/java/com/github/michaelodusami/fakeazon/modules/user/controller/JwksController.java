@@ -0,0 +1,79 @@
+package com.github.michaelodusami.fakeazon.modules.user.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.github.michaelodusami.fakeazon.security.JwksService;
+import com.github.michaelodusami.fakeazon.security.JwksService.JwksDocument;
+
+/**
+ * The JwksController class serves the public JWT verification keys as a JSON Web Key Set.
+ *
+ * Purpose:
+ * - Exposes `/v1/auth/.well-known/jwks.json` so other nodes and services can verify tokens
+ * offline.
+ * - Answers conditional requests with 304 so clients and edge caches revalidate cheaply.
+ *
+ * Why It Matters:
+ * Verifiers only need to fetch keys when they see an unknown `kid`, and shared caches can serve
+ * the document for `spring.jwt.jwks.max-age` without reaching the application.
+ *
+ * Annotations:
+ * - @RestController: Indicates that this class handles RESTful API requests.
+ * - @RequestMapping: Defines the base URI for all endpoints in this controller.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ */
+@RestController
+@RequestMapping("/v1/auth/.well-known")
+public class JwksController {
+
+    @Autowired
+    private JwksService jwksService;
+
+    @Value("${spring.jwt.jwks.max-age:PT5M}")
+    private Duration maxAge;
+
+    /**
+     * Returns the JWK Set for the active signing keys.
+     *
+     * Purpose:
+     * Serves the pre-serialized key set with a strong ETag and public Cache-Control headers.
+     *
+     * Impact:
+     * - Returns 304 Not Modified when `If-None-Match` matches the current ETag. The header may
+     * list several tags or weak ones (`W/"..."`), compared weakly as RFC 9110 requires.
+     * - Never exposes HMAC secrets; the set is empty when tokens are signed with HS256.
+     *
+     * @param request the request, carrying the entity tags the client already holds, if any.
+     * @return the JWK Set bytes, or an empty 304 response.
+     */
+    @GetMapping("/jwks.json")
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        JwksDocument document = jwksService.current();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+
+        if (request.checkNotModified(document.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(document.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.json());
+    }
+}
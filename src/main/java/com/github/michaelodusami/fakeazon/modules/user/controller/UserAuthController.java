@@ -10,18 +10,25 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.github.michaelodusami.fakeazon.modules.user.dto.AuthResponse;
 import com.github.michaelodusami.fakeazon.modules.user.dto.LoginRequest;
+import com.github.michaelodusami.fakeazon.modules.user.dto.RefreshRequest;
 import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
 import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.service.RefreshTokenService;
 import com.github.michaelodusami.fakeazon.modules.user.service.UserService;
+import com.github.michaelodusami.fakeazon.security.JwtAuthFilter;
 import com.github.michaelodusami.fakeazon.security.JwtService;
+import com.github.michaelodusami.fakeazon.security.PasswordHashingUnavailableException;
+import com.github.michaelodusami.fakeazon.security.TokenRevocationService;
 import com.github.michaelodusami.fakeazon.security.UserDetails;
+import com.github.michaelodusami.fakeazon.security.VerifiedToken;
 
 import jakarta.validation.Valid;
 
@@ -30,8 +37,8 @@ import jakarta.validation.Valid;
  * operations for the Fakeazon application.
  *
  * Purpose:
- * - Provides endpoints for user login and registration.
- * - Generates JWT tokens for authenticated users.
+ * - Provides endpoints for user login, token refresh and registration.
+ * - Generates JWT tokens and single-use refresh tokens for authenticated users.
  * - Differentiates between standard user and admin registration.
  *
  * Why It Matters:
@@ -57,12 +64,23 @@ import jakarta.validation.Valid;
 @RequestMapping("/v1/auth")
 public class UserAuthController {
 
+    /**
+     * Response header carrying the opaque refresh token.
+     */
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -74,8 +92,11 @@ public class UserAuthController {
      * upon successful login.
      *
      * Impact:
-     * - Verifies the user's credentials using the authentication manager.
+     * - Verifies the user's credentials using the authentication manager, which loads
+     * the user once; the token and response are built from that principal.
      * - Generates a JWT token for secure, stateless session management.
+     * - Issues a refresh token in the `X-Refresh-Token` header so the session can be
+     * extended without re-sending the password.
      * - Returns user details and the token to the client for subsequent
      * authenticated requests.
      *
@@ -91,26 +112,26 @@ public class UserAuthController {
             Authentication authenticate = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword()));
 
-            // Retrieve authenticated user's details
+            // The principal already carries the id, name and roles loaded during authentication
             UserDetails userDetails = (UserDetails) authenticate.getPrincipal();
 
-            // Fetch the user entity from the database
-            User user = userService.findByEmail(userDetails.getUsername())
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
             // Generate JWT token
-            String token = jwtService.generateToken(user.getEmail());
+            String token = jwtService.generateToken(userDetails);
 
-            // Return response with the token and user details
+            // Return response with the tokens and user details
             return ResponseEntity.ok()
                     .header(HttpHeaders.AUTHORIZATION, token)
-                    .body(AuthResponse.toUser(user));
+                    .header(REFRESH_TOKEN_HEADER, refreshTokenService.issue(userDetails.getId()))
+                    .body(AuthResponse.toUser(userDetails));
         } catch (BadCredentialsException exception) {
             // Handle invalid credentials
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (UsernameNotFoundException exception) {
             // Handle user not found case (optional)
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (PasswordHashingUnavailableException exception) {
+            // Let ApiExceptionHandler answer 503 with Retry-After
+            throw exception;
         } catch (Exception exception) {
             // Log unexpected errors and return 500 status
             exception.printStackTrace();
@@ -118,6 +139,66 @@ public class UserAuthController {
         }
     }
 
+    /**
+     * Handles access token refresh requests.
+     *
+     * Purpose:
+     * Exchanges a refresh token for a new access token and a successor refresh token.
+     *
+     * Impact:
+     * - Costs one indexed lookup instead of a password hash verification.
+     * - Each refresh token works once; replaying a used one revokes the whole session chain.
+     *
+     * @param refreshRequest the request containing the refresh token.
+     * @return a response entity with the new tokens and user details, or UNAUTHORIZED if the
+     *         refresh token is unknown, expired or already used.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody @Valid RefreshRequest refreshRequest) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AUTHORIZATION, jwtService.generateToken(rotation.user()))
+                    .header(REFRESH_TOKEN_HEADER, rotation.refreshToken())
+                    .body(AuthResponse.toUser(rotation.user()));
+        } catch (BadCredentialsException exception) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * Handles logout requests.
+     *
+     * Purpose:
+     * Revokes the access token used for this request and, if supplied, the refresh token
+     * session it belongs to.
+     *
+     * Impact:
+     * - The access token is rejected from now on, even though it has not expired.
+     * - The refresh token and every successor issued from the same login stop working.
+     * - The token id and expiry come from the token `JwtAuthFilter` already accepted, so the
+     * token is not parsed again and cannot fail here.
+     *
+     * @param verifiedToken  the access token of this request, as verified by `JwtAuthFilter`.
+     * @param refreshRequest optional body with the refresh token to revoke.
+     * @return NO_CONTENT once the tokens are revoked.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(name = JwtAuthFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken,
+            @RequestBody(required = false) RefreshRequest refreshRequest) {
+        if (verifiedToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (verifiedToken.tokenId() != null) {
+            tokenRevocationService.revoke(verifiedToken.tokenId(), verifiedToken.expiresAt());
+        }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revokeFamily(refreshRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Handles user registration requests.
      *
@@ -1,20 +1,32 @@
 package com.github.michaelodusami.fakeazon.modules.user.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserPage;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserExportService;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserImportService;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserImportService.Format;
 import com.github.michaelodusami.fakeazon.modules.user.service.UserService;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 /**
  * The UserController class provides RESTful endpoints for managing users in the
@@ -48,25 +60,71 @@ import java.util.List;
 @RequestMapping("/v1/users")
 public class UserController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
     /**
-     * Retrieves a list of all users.
+     * Retrieves a page of users.
      *
      * Purpose:
-     * Provides a way for administrators to view all registered users.
+     * Provides a way for administrators to browse all registered users without
+     * loading the whole table into one response.
      *
      * Impact:
      * - Facilitates user management and auditing.
-     * - Returns user details for administrative purposes.
+     * - Pages are ordered by id; pass the returned `nextCursor` as `after` to get the
+     * next page. Every page costs the same regardless of how deep it is.
+     * - Optionally filters by role and by creation time (ISO-8601 date-times).
+     * - Returns 400 if the cursor is malformed or the role is unknown.
      *
-     * @return a ResponseEntity containing the list of all users.
+     * @param after         the cursor returned with the previous page, if any.
+     * @param limit         the page size, at most {@value UserService#MAX_PAGE_SIZE}.
+     * @param role          only list users with this role, e.g. `ADMIN`.
+     * @param createdFrom   only list users created at or after this time.
+     * @param createdBefore only list users created before this time.
+     * @return a ResponseEntity containing the page of users.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserPage> getAllUsers(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+        try {
+            return ResponseEntity.ok(userService.findPage(after, limit, role, createdFrom, createdBefore));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exports every user as NDJSON.
+     *
+     * Purpose:
+     * Gives admin analytics jobs a full dump of the users table in one request.
+     * Restricted to administrators.
+     *
+     * Impact:
+     * - Streams one JSON object per user (id, name, email, roles, createdAt, updatedAt),
+     * in id order; password hashes are not included.
+     * - Users are read through a database cursor and written as they arrive, so memory
+     * use does not grow with the size of the table.
+     *
+     * @return a ResponseEntity streaming the users.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userExportService::exportUsers);
     }
 
     /**
@@ -119,16 +177,21 @@ public class UserController {
      * Impact:
      * - Enables user profile corrections or updates.
      * - Returns 404 if the user to be updated does not exist.
+     * - Returns 400 if the new email is already registered, as registration does.
      *
      * @param id          the ID of the user to update.
      * @param updatedUser the user object containing updated details.
-     * @return a ResponseEntity containing the updated user or a 404 status.
+     * @return a ResponseEntity containing the updated user, or a 404 or 400 status.
      */
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
-        return userService.updateUser(id, updatedUser)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return userService.updateUser(id, updatedUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -169,4 +232,32 @@ public class UserController {
         boolean updated = userService.changePassword(id, newPassword);
         return updated ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
+
+    /**
+     * Registers users in bulk from an NDJSON or CSV body.
+     *
+     * Purpose:
+     * Onboards large partner customer lists in one request instead of one registration
+     * call per user. Restricted to administrators.
+     *
+     * Impact:
+     * - The body is read as it arrives and processed in chunks, so it is never held in memory.
+     * - Rows follow `RegisterRequest` validation and registration rules; every row gets an
+     * NDJSON `UserImportResult` line, streamed back as each chunk completes.
+     * - NDJSON bodies carry one `{"name","email","password"}` object per line; CSV bodies start
+     * with a header naming the name, email and password columns.
+     *
+     * @param contentType `application/x-ndjson` or `text/csv`.
+     * @param body        the request body stream.
+     * @return a ResponseEntity streaming one result per input row.
+     */
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV) ? Format.CSV : Format.NDJSON;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> userImportService.importUsers(body, format, output));
+    }
 }
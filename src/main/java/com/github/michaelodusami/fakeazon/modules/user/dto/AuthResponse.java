@@ -1,6 +1,7 @@
 package com.github.michaelodusami.fakeazon.modules.user.dto;
 
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.security.UserDetails;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -67,4 +68,18 @@ public class AuthResponse {
     public static AuthResponse toUser(User user) {
         return new AuthResponse(user.getId(), user.getName(), user.getEmail());
     }
+
+    /**
+     * Converts an authenticated principal to an AuthResponse DTO.
+     *
+     * Purpose:
+     * Builds the login response from the principal returned by the authentication
+     * manager, so a login needs no second user lookup.
+     *
+     * @param principal the authenticated principal.
+     * @return an AuthResponse containing the user's ID, name, and email.
+     */
+    public static AuthResponse toUser(UserDetails principal) {
+        return new AuthResponse(principal.getId(), principal.getName(), principal.getUsername());
+    }
 }
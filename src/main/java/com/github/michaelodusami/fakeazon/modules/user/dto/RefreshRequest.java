@@ -0,0 +1,30 @@
+package com.github.michaelodusami.fakeazon.modules.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The RefreshRequest class represents the payload of a token refresh request.
+ *
+ * Purpose:
+ * Carries the opaque refresh token the client received from login or a previous refresh.
+ *
+ * Annotations:
+ * - @NoArgsConstructor, @AllArgsConstructor: Generate constructors for deserialization and tests.
+ * - @Setter, @Getter: Generate accessors for the field.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ */
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class RefreshRequest {
+
+    @NotBlank
+    private String refreshToken; // The opaque refresh token to exchange.
+}
@@ -0,0 +1,49 @@
+package com.github.michaelodusami.fakeazon.modules.user.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The UserCacheInvalidation record names the users whose cached entries are out of date, and
+ * the access tokens that were revoked.
+ *
+ * Purpose:
+ * Published to the `fakeazon.user-cache.invalidation.topic` Kafka topic whenever users change,
+ * so every instance evicts the same entries from its local user caches.
+ *
+ * Impact on the Application:
+ * - Carries only ids and emails, e.g. `{"ids":[7],"emails":["old@x.com","new@x.com"]}`; the
+ * receiver reloads anything else it needs from the database.
+ * - One event may cover many users, such as a whole bulk import chunk.
+ * - Emails are also added to the receiver's `RegisteredEmailFilter`, so users registered on one
+ * instance can log in on all of them right away.
+ * - Token ids are added to the receiver's `TokenRevocationService` filter, so a logout on one
+ * instance is honoured by all of them, e.g. `{"tokenIds":["5f0c..."]}`.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ *
+ * @param ids      the ids of the changed users.
+ * @param emails   every email address the changed users were cached under, old and new.
+ * @param tokenIds the `jti` of revoked access tokens.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record UserCacheInvalidation(List<Long> ids, List<String> emails, List<String> tokenIds) {
+
+    public UserCacheInvalidation {
+        ids = ids == null ? List.of() : List.copyOf(ids);
+        emails = emails == null ? List.of() : List.copyOf(emails);
+        tokenIds = tokenIds == null ? List.of() : List.copyOf(tokenIds);
+    }
+
+    /**
+     * Names changed users only.
+     *
+     * @param ids    the ids of the changed users.
+     * @param emails every email address the changed users were cached under, old and new.
+     */
+    public UserCacheInvalidation(List<Long> ids, List<String> emails) {
+        this(ids, emails, List.of());
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.michaelodusami.fakeazon.modules.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The UserImportResult class reports the outcome of one row of a bulk user import.
+ *
+ * Purpose:
+ * The import endpoint streams one of these per input row as NDJSON, in input order, so the
+ * caller can reconcile its list without waiting for the whole file to finish.
+ *
+ * Impact on the Application:
+ * - `row` is the 1-based data row (CSV header and blank lines are not counted).
+ * - `id` is set for created users; `error` is set for every other status.
+ * - Passwords are never echoed back.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ */
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+
+    /**
+     * The outcome of an imported row.
+     */
+    public enum Status {
+        CREATED, // The user was inserted.
+        DUPLICATE, // The email is already registered, or appeared earlier in the same import.
+        INVALID, // The row could not be parsed or failed RegisterRequest validation.
+        FAILED // The row was valid but could not be stored, e.g. hashing stayed unavailable.
+    }
+
+    private long row; // The 1-based data row this result belongs to.
+
+    private String email; // The email from the row, when one could be read.
+
+    private Status status; // The outcome of the row.
+
+    private Long id; // The id of the created user.
+
+    private String error; // Why the row was not created.
+
+    public static UserImportResult created(long row, String email, Long id) {
+        return new UserImportResult(row, email, Status.CREATED, id, null);
+    }
+
+    public static UserImportResult rejected(long row, String email, Status status, String error) {
+        return new UserImportResult(row, email, status, null, error);
+    }
+}
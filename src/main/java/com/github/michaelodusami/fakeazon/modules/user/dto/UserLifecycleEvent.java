@@ -0,0 +1,33 @@
+package com.github.michaelodusami.fakeazon.modules.user.dto;
+
+import java.time.Instant;
+import java.util.Set;
+
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+/**
+ * The UserLifecycleEvent record is the payload of a user event published to other services.
+ *
+ * Purpose:
+ * Written to the user outbox as JSON in the same transaction as the user change, then relayed
+ * unchanged to the `fakeazon.user-events.topic` Kafka topic, keyed by the user id.
+ *
+ * Impact on the Application:
+ * - Carries the user as it was right after the change: for `USER_DELETED`, as it was deleted.
+ * - Never carries the password hash.
+ * - Delivery is at least once; the `eventId` record header is unique per event so consumers can
+ * drop duplicates.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ *
+ * @param type       what happened to the user.
+ * @param userId     the user's id.
+ * @param email      the user's email.
+ * @param roles      the user's roles, e.g. `["USER","ADMIN"]`.
+ * @param occurredAt when the change was made.
+ */
+public record UserLifecycleEvent(UserEventType type, Long userId, String email, Set<UserRole> roles,
+        Instant occurredAt) {
+}
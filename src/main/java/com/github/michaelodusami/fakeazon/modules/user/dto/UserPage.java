@@ -0,0 +1,37 @@
+package com.github.michaelodusami.fakeazon.modules.user.dto;
+
+import java.util.List;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The UserPage class is one page of the keyset-paginated user listing.
+ *
+ * Purpose:
+ * Carries the users of the page, ordered by id, and an opaque cursor for the next one.
+ *
+ * Impact on the Application:
+ * - Clients pass `nextCursor` back as `after` to continue; it is null on the last page.
+ * - The cursor encodes a position rather than an offset, so deep pages cost the same as
+ * the first page and rows inserted meanwhile do not shift the remaining pages.
+ *
+ * Author: Michael-Andre Odusami
+ * Version: 1.0.0
+ */
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+public class UserPage {
+
+    private List<User> users; // The users of this page, in ascending id order.
+
+    private String nextCursor; // The cursor of the next page, or null if this is the last one.
+}
@@ -0,0 +1,99 @@
+package com.github.michaelodusami.fakeazon.modules.user.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The RefreshToken class represents an opaque refresh token issued alongside an access token.
+ *
+ * Purpose:
+ * Lets clients obtain a new access token without re-sending their password. Only the SHA-256
+ * hash of the token is stored, so a database leak does not hand out usable sessions.
+ *
+ * Why It Matters:
+ * Refreshing is a single indexed lookup by `token_hash` instead of a BCrypt verification, and
+ * every token belongs to a family (one login) so that replaying a rotated token can revoke the
+ * whole session chain.
+ *
+ * Impact on the Application:
+ * - Each token can be used exactly once; using it marks it revoked and issues a successor in the
+ * same family.
+ * - Presenting an already revoked token is treated as theft and revokes the entire family.
+ * - Rows are removed with their user and purged once expired.
+ *
+ * Annotations:
+ * - @Entity: Maps this class to a database table named "refresh_tokens".
+ * - @Table: Declares the unique index on the token hash and the family and user indexes.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "uk_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The base64url SHA-256 hash of the opaque token handed to the client.
+     * Impact: The only column refresh requests are looked up by.
+     */
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash;
+
+    /**
+     * Identifies the login this token descends from.
+     * Impact: Reuse detection revokes every token sharing this value.
+     */
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    /**
+     * The user the token was issued to.
+     * Impact: A password change revokes every token of the user.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Set once the token has been exchanged or its family revoked.
+     */
+    private boolean revoked;
+}
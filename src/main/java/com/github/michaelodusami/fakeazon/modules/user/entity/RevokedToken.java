@@ -0,0 +1,56 @@
+package com.github.michaelodusami.fakeazon.modules.user.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The RevokedToken class records an access token that must be rejected before it expires.
+ *
+ * Purpose:
+ * Backs the revocation check in `JwtAuthFilter`. Tokens are identified by their `jti` claim,
+ * so no token material is stored.
+ *
+ * Why It Matters:
+ * A row only has to live until the token's own expiry; after that the signature check rejects
+ * the token anyway, which keeps this table small.
+ *
+ * Annotations:
+ * - @Entity: Maps this class to a database table named "revoked_tokens".
+ * - @Table: Declares the index used to purge expired rows.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+    /**
+     * The revoked token's `jti` claim.
+     */
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    /**
+     * When the revoked token expires and the row can be purged.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
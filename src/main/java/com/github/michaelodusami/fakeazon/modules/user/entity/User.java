@@ -1,16 +1,22 @@
 package com.github.michaelodusami.fakeazon.modules.user.entity;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.EnumSet;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
@@ -59,16 +65,26 @@ import lombok.NoArgsConstructor;
 @Data
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_created_at", columnList = "created_at"))
 public class User {
 
+    /**
+     * Name of the case-insensitive unique index on `lower(email)`, created by `import.sql`.
+     * Impact: Lets registration detect a duplicate email from the failed insert alone.
+     */
+    public static final String EMAIL_UNIQUE_INDEX = "uk_users_email";
+
     /**
      * The unique identifier for the user.
      * Impact: Provides a primary key for the "users" table, ensuring uniqueness for
      * each user record.
+     * Generation: Drawn from `users_seq` with a pooled optimizer that reserves 50 ids per
+     * round trip. Unlike IDENTITY, the id is known before the INSERT, so Hibernate can
+     * defer and batch inserts (`hibernate.jdbc.batch_size`).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -82,6 +98,7 @@ public class User {
      * The email address of the user.
      * Impact: A primary field for login and communication with the user.
      * Validation: Ensures the email format is valid through the @Email annotation.
+     * Uniqueness: Enforced case-insensitively by the `uk_users_email` index.
      */
     @Email
     private String email;
@@ -91,25 +108,33 @@ public class User {
      * A collection of roles assigned to the user.
      * Impact: Facilitates role-based access control (e.g., distinguishing between
      * admin and customer).
+     * Storage: One bit per role in the `role_mask` column (see {@link UserRoleMaskConverter}),
+     * loaded with the user row itself. Admins are indexed by the partial index created in
+     * `import.sql`.
      */
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Convert(converter = UserRoleMaskConverter.class)
+    @Column(name = "role_mask", nullable = false)
     @Builder.Default
-    private Set<String> roles = new HashSet<>();
+    private EnumSet<UserRole> roles = EnumSet.noneOf(UserRole.class);
 
     /**
      * The timestamp when the user account was created.
-     * Impact: Useful for tracking user registration and account age.
+     * Impact: Useful for tracking user registration and account age. Indexed for the
+     * creation date filter of the user listing.
      */
+    @CreationTimestamp
+    @Column(updatable = false)
     private LocalDateTime createdAt;
 
     /**
      * The timestamp when the user account was last updated.
      * Impact: Useful for tracking when the user details were modified.
      */
+    @UpdateTimestamp
     private LocalDateTime updatedAt;
 
     @PostConstruct
     private void initRoles() {
-        roles = new HashSet<>();
+        roles = EnumSet.noneOf(UserRole.class);
     }
 }
@@ -0,0 +1,75 @@
+package com.github.michaelodusami.fakeazon.modules.user.entity;
+
+import java.time.Instant;
+
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The UserOutboxEvent class is a user lifecycle event waiting to be published to Kafka.
+ *
+ * Purpose:
+ * Rows are inserted in the same transaction as the user change they describe, so an event
+ * exists if and only if the change committed. `UserOutboxRelay` publishes them in id order and
+ * deletes them once the broker has acknowledged them.
+ *
+ * Why It Matters:
+ * Registrations never wait on the broker, and a broker outage only grows this table instead of
+ * failing or losing user changes.
+ *
+ * Annotations:
+ * - @Entity: Maps this class to a database table named "user_outbox".
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "user_outbox")
+public class UserOutboxEvent {
+
+    /**
+     * The event id, sent as the `eventId` header.
+     *
+     * Unlike `User`, this uses IDENTITY: the id is taken at insert time, after the user row is
+     * locked by the change, so the events of one user are numbered in commit order. A pooled
+     * sequence would let another instance hand out an older, lower id later.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The changed user's id, used as the Kafka record key.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private UserEventType type;
+
+    /**
+     * The `UserLifecycleEvent` as JSON.
+     */
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,36 @@
+package com.github.michaelodusami.fakeazon.modules.user.entity;
+
+import java.util.EnumSet;
+
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * The UserRoleMaskConverter class maps a user's roles to the `users.role_mask` column.
+ *
+ * Purpose:
+ * Stores the roles as one integer, with one bit per {@link UserRole}, instead of one
+ * `user_roles` row per role.
+ *
+ * Impact on the Application:
+ * - Roles are loaded with the user row itself; no join or secondary query is needed.
+ * - Hibernate detects in-place changes to the set by comparing the converted masks.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Converter
+public class UserRoleMaskConverter implements AttributeConverter<EnumSet<UserRole>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(EnumSet<UserRole> roles) {
+        return UserRole.toMask(roles);
+    }
+
+    @Override
+    public EnumSet<UserRole> convertToEntityAttribute(Integer mask) {
+        return UserRole.fromMask(mask == null ? 0 : mask);
+    }
+}
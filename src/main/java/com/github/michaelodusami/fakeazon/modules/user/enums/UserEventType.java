@@ -0,0 +1,31 @@
+package com.github.michaelodusami.fakeazon.modules.user.enums;
+
+/**
+ * The UserEventType enum lists the user lifecycle events published to other services.
+ *
+ * Purpose:
+ * Names the `type` of each event written to the user outbox and relayed to the
+ * `fakeazon.user-events.topic` Kafka topic.
+ *
+ * Impact on the Application:
+ * - Stored by name in `user_outbox.type`, so constants may be added but never renamed.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public enum UserEventType {
+    /**
+     * A user registered, through the API or a bulk import.
+     */
+    USER_REGISTERED,
+
+    /**
+     * A user's set of roles changed.
+     */
+    USER_ROLES_CHANGED,
+
+    /**
+     * A user was deleted.
+     */
+    USER_DELETED
+}
@@ -1,5 +1,10 @@
 package com.github.michaelodusami.fakeazon.modules.user.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
 /**
  * The UserRole enum defines the roles available in the Fakeazon application.
  * 
@@ -15,6 +20,8 @@ package com.github.michaelodusami.fakeazon.modules.user.enums;
  * - Centralizes role definitions, reducing the risk of inconsistencies.
  * - Facilitates features like admin dashboards and restricted user functionalities.
  * - Enhances code readability and maintainability by replacing string literals with constants.
+ * - Each role owns one bit of the `users.role_mask` column, so a user's roles are stored as a
+ * single integer and role checks are bit tests. Bits are fixed per role and must never be reused.
  * 
  * @author Michael-Andre Odusami
  * @version 1.0.0
@@ -23,22 +30,25 @@ public enum UserRole {
     /**
      * Represents a standard user with access to basic application functionalities.
      */
-    ROLE_USER("USER"),
+    ROLE_USER("USER", 1),
 
     /**
      * Represents an administrator with elevated permissions for managing users and system settings.
      */
-    ROLE_ADMIN("ADMIN");
+    ROLE_ADMIN("ADMIN", 1 << 1);
 
     private final String role;
+    private final int bit;
 
     /**
      * Constructs a UserRole with the specified role name.
      * 
      * @param role the name of the role.
+     * @param bit  the bit of the role in the stored role mask.
      */
-    UserRole(String role) {
+    UserRole(String role, int bit) {
         this.role = role;
+        this.bit = bit;
     }
 
     /**
@@ -50,8 +60,11 @@ public enum UserRole {
      * Impact:
      * Facilitates role-based checks and assignments throughout the application.
      * 
+     * Also the JSON form of the role, so API payloads keep using `USER` and `ADMIN`.
+     * 
      * @return the string representation of the role.
      */
+    @JsonValue
     public String getRole() {
         return role;
     }
@@ -78,5 +91,50 @@ public enum UserRole {
             }
         }
         throw new IllegalArgumentException("No role found for: " + role);
-    } 
+    }
+
+    /**
+     * Retrieves the bit of this role in a role mask.
+     * 
+     * @return a mask with only this role's bit set.
+     */
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * Encodes a set of roles as a role mask.
+     * 
+     * @param roles the roles to encode; may be null.
+     * @return the bitwise OR of the roles' bits, or 0 if there are none.
+     */
+    public static int toMask(Set<UserRole> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (UserRole userRole : roles) {
+                mask |= userRole.bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Decodes a role mask into a set of roles.
+     * 
+     * Impact:
+     * Bits that belong to no role are ignored, so a mask written by a newer version
+     * with additional roles still loads.
+     * 
+     * @param mask the role mask.
+     * @return a new mutable set with the roles whose bits are set.
+     */
+    public static EnumSet<UserRole> fromMask(int mask) {
+        EnumSet<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        for (UserRole userRole : UserRole.values()) {
+            if ((mask & userRole.bit) != 0) {
+                roles.add(userRole);
+            }
+        }
+        return roles;
+    }
 }
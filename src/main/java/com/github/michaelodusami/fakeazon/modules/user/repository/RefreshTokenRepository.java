@@ -0,0 +1,81 @@
+package com.github.michaelodusami.fakeazon.modules.user.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.RefreshToken;
+
+/**
+ * The RefreshTokenRepository interface provides data access for refresh tokens.
+ *
+ * Purpose:
+ * Keeps the refresh path to a handful of indexed statements: one lookup by token hash that
+ * also loads the owning user, and conditional updates for rotation and revocation.
+ *
+ * Impact on the Application:
+ * - `markUsed` is a compare-and-set, so two concurrent refreshes with the same token cannot
+ * both succeed.
+ * - `revokeFamily`, `revokeAllForUser` and `deleteExpired` run as bulk updates without loading
+ * entities.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Finds a refresh token by hash together with its user in a single query.
+     *
+     * @param tokenHash the base64url SHA-256 hash of the presented token.
+     * @return the token with its user initialized, or empty if unknown.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revokes a token only if it has not been used yet.
+     *
+     * @param id the token id.
+     * @return 1 if this call revoked the token, 0 if it was already revoked.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.id = :id AND t.revoked = false")
+    int markUsed(@Param("id") Long id);
+
+    /**
+     * Revokes every token in a family.
+     *
+     * @param familyId the family to revoke.
+     * @return the number of tokens revoked.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Revokes every token of a user, across all of their families.
+     *
+     * @param userId the user whose sessions end.
+     * @return the number of tokens revoked.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.user.id = :userId AND t.revoked = false")
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    /**
+     * Deletes tokens that can no longer be exchanged.
+     *
+     * @param now the current time.
+     * @return the number of tokens deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,62 @@
+package com.github.michaelodusami.fakeazon.modules.user.repository;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.RevokedToken;
+
+/**
+ * The RevokedTokenRepository interface provides data access for revoked access tokens.
+ *
+ * Purpose:
+ * Supplies the token ids used to rebuild the revocation Bloom filter and confirms Bloom
+ * positives with a primary key lookup.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Streams the ids of revoked tokens that have not expired yet, without loading entities.
+     *
+     * @param now the current time.
+     * @return the token ids; must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT t.tokenId FROM RevokedToken t WHERE t.expiresAt > :now")
+    Stream<String> streamActiveTokenIds(@Param("now") Instant now);
+
+    /**
+     * Records a revocation in a single statement; revoking a token twice keeps the first row.
+     *
+     * Purpose:
+     * `save` on an entity with an assigned id is a `merge`, which reads the row before inserting.
+     *
+     * @param tokenId   the token's `jti` claim.
+     * @param expiresAt the token's expiry.
+     * @param revokedAt when the token was revoked.
+     * @return 1 if the revocation was recorded, 0 if it already was.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) "
+            + "VALUES (:tokenId, :expiresAt, :revokedAt) ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId, @Param("expiresAt") Instant expiresAt,
+            @Param("revokedAt") Instant revokedAt);
+
+    /**
+     * Deletes revocations for tokens that have expired on their own.
+     *
+     * @param now the current time.
+     * @return the number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,45 @@
+package com.github.michaelodusami.fakeazon.modules.user.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.UserOutboxEvent;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    /**
+     * Key of the Postgres advisory lock held by the instance relaying the outbox.
+     */
+    long RELAY_LOCK = 0x7573657230757462L;
+
+    /**
+     * Takes the relay lock until the current transaction ends, if no other instance holds it.
+     *
+     * @return true if this transaction may relay events.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + RELAY_LOCK + ")", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Loads the oldest unpublished events.
+     *
+     * @param limit the maximum number of events.
+     * @return the events in id order.
+     */
+    @Query(value = "SELECT * FROM user_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UserOutboxEvent> findOldest(@Param("limit") int limit);
+
+    /**
+     * Finds when the oldest unpublished event was written.
+     *
+     * @return the creation time, or null if the outbox is empty.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM UserOutboxEvent e")
+    Instant findOldestCreatedAt();
+}
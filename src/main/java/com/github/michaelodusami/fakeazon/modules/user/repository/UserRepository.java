@@ -1,14 +1,22 @@
 package com.github.michaelodusami.fakeazon.modules.user.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * The UserRepository interface provides data access methods for managing User
@@ -38,7 +46,12 @@ import com.github.michaelodusami.fakeazon.modules.user.entity.User;
  * @version 1.0.0
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+
+    /**
+     * Rows fetched per round trip by the streaming queries.
+     */
+    int STREAM_FETCH_SIZE = 500;
 
     /**
      * Finds a user by their email address.
@@ -51,11 +64,66 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Impact:
      * - Provides a quick lookup of users by their email address.
      * - Supports validation of user credentials during authentication.
+     * - Matches case-insensitively on `lower(email)`, which is served by the
+     * `uk_users_email` unique index.
      * 
      * @param email the email address of the user.
      * @return an Optional containing the user if found, otherwise empty.
      */
-    public Optional<User> findByEmail(String email);
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    public Optional<User> findByEmail(@Param("email") String email);
+
+    /**
+     * Streams every user, in id order, through a forward-only cursor.
+     * 
+     * Purpose:
+     * Backs the NDJSON user export, which must not hold the whole table in memory.
+     * 
+     * Impact:
+     * - Rows are fetched from the database {@value #STREAM_FETCH_SIZE} at a time; Postgres only
+     * honours the fetch size inside a transaction, so callers must keep one open while consuming.
+     * - Roles are part of the user row (`role_mask`), so no query per user is needed.
+     * - Entities are loaded read-only; callers should detach them once used and close the stream.
+     * 
+     * @return a stream of users that must be closed after use.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    public Stream<User> streamAll();
+
+    /**
+     * Streams the email of every user.
+     * 
+     * Purpose:
+     * Rebuilds the in-memory filter of registered emails used to reject unknown logins.
+     * 
+     * Impact:
+     * - Reads only the email column, {@value #STREAM_FETCH_SIZE} rows per round trip; callers
+     * must consume it inside a transaction and close it.
+     * 
+     * @return a stream of emails, as stored.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("SELECT u.email FROM User u")
+    public Stream<String> streamEmails();
+
+    /**
+     * Finds which of the given emails are already registered.
+     * 
+     * Purpose:
+     * Lets bulk imports detect duplicates for a whole chunk of rows with one query.
+     * 
+     * Impact:
+     * - Uses the `uk_users_email` index on `lower(email)`.
+     * 
+     * @param emails lower-cased email addresses to check.
+     * @return the lower-cased emails among {@code emails} that already belong to a user.
+     */
+    @Query("SELECT lower(u.email) FROM User u WHERE lower(u.email) IN :emails")
+    public List<String> findRegisteredEmails(@Param("emails") Collection<String> emails);
 
     /**
      * Finds all users assigned to a specific role.
@@ -68,10 +136,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Impact:
      * - Supports role-based functionality, such as fetching all "ADMIN" users.
      * - Simplifies role-based access control (RBAC) logic.
+     * - Runs as a bit test on `role_mask` instead of a join; see {@link #findUsersByRoleMask}.
+     * 
+     * @param role the role to filter users by.
+     * @return a list of users with the specified role, in id order.
+     */
+    default List<User> findUsersByRole(UserRole role) {
+        return findUsersByRoleMask(role.getBit());
+    }
+
+    /**
+     * Finds all users holding at least one of the roles in {@code mask}.
+     * 
+     * Impact:
+     * - The predicate is written exactly like the partial role indexes in `import.sql`
+     * (`(role_mask & 2) <> 0` for admins), so Postgres can answer it from the index
+     * instead of scanning every user.
      * 
-     * @param role the name of the role to filter users by.
-     * @return a list of users with the specified role.
+     * @param mask the bits of the roles to match, see {@link UserRole#getBit()}.
+     * @return the matching users, in id order.
      */
-    @Query("SELECT u from User u JOIN u.roles r WHERE r = :role")
-    List<User> findUsersByRole(@Param("role") String role);
+    @Query(value = "SELECT * FROM users WHERE (role_mask & :mask) <> 0 ORDER BY id", nativeQuery = true)
+    List<User> findUsersByRoleMask(@Param("mask") int mask);
 }
@@ -0,0 +1,73 @@
+package com.github.michaelodusami.fakeazon.modules.user.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+/**
+ * The UserSpecifications class holds the filters of the keyset-paginated user listing.
+ *
+ * Purpose:
+ * Each optional filter is a `Specification` that returns null when its argument is absent, so
+ * `Specification.and` simply skips it and the generated SQL only contains the filters in use.
+ *
+ * Impact on the Application:
+ * - `idAfter` is the keyset condition; combined with ordering by id it lets every page start with
+ * an index seek instead of skipping the rows of earlier pages.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Matches users whose id is greater than {@code id}.
+     *
+     * @param id the last id of the previous page, or null for the first page.
+     * @return the keyset condition, or null to match every user.
+     */
+    public static Specification<User> idAfter(Long id) {
+        return id == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Matches users holding {@code role}.
+     *
+     * Rendered as `(role_mask & bit) <> 0` on the users row itself, the same predicate as the
+     * partial role indexes, rather than a join on a roles table.
+     *
+     * @param role the role, or null to match every user.
+     * @return the role condition, or null.
+     */
+    public static Specification<User> hasRole(UserRole role) {
+        return role == null ? null
+                : (root, query, cb) -> cb.notEqual(
+                        cb.function("bitand", Integer.class, root.get("roles"), cb.literal(role.getBit())), 0);
+    }
+
+    /**
+     * Matches users created at or after {@code from}.
+     *
+     * @param from the inclusive lower bound, or null.
+     * @return the creation date condition, or null.
+     */
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    /**
+     * Matches users created before {@code before}.
+     *
+     * @param before the exclusive upper bound, or null.
+     * @return the creation date condition, or null.
+     */
+    public static Specification<User> createdBefore(LocalDateTime before) {
+        return before == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), before);
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.RefreshToken;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.repository.RefreshTokenRepository;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+
+import lombok.NonNull;
+
+/**
+ * The RefreshTokenService class issues and rotates opaque refresh tokens.
+ *
+ * Purpose:
+ * Lets clients exchange a refresh token for a new access token instead of logging in again,
+ * so expired sessions no longer cost a password hash verification.
+ *
+ * Why It Matters:
+ * A refresh is one indexed lookup plus two small writes. Tokens are single-use: each exchange
+ * returns a successor in the same family, and replaying a used token revokes the whole family,
+ * which limits the damage of a stolen refresh token.
+ *
+ * Impact on the Application:
+ * - Raw tokens are 256 bits from `SecureRandom` and are never stored; only their SHA-256 hash is.
+ * - `spring.jwt.refresh.ttl` bounds how long a session can be extended without a password.
+ * - A password change revokes every family of the user, so a stolen refresh token stops working
+ * once the victim resets their password.
+ * - Expired tokens are purged every `spring.jwt.refresh.purge-interval`.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+
+    /**
+     * The outcome of a successful refresh.
+     *
+     * @param user         the user the token belongs to.
+     * @param refreshToken the successor refresh token to hand back to the client.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Constructs the RefreshTokenService.
+     *
+     * @param refreshTokenRepository the repository storing token hashes.
+     * @param userRepository         the repository used to reference token owners.
+     * @param ttl                    how long a refresh token stays exchangeable.
+     */
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            @Value("${spring.jwt.refresh.ttl:P14D}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Issues the first refresh token of a new family, typically after a password login.
+     *
+     * @param userId the id of the authenticated user; the user is referenced, not loaded.
+     * @return the raw refresh token to return to the client.
+     */
+    @Transactional
+    public String issue(@NonNull Long userId) {
+        return create(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     *
+     * Impact:
+     * - Unknown, expired and already used tokens are rejected with `BadCredentialsException`.
+     * - A used token being presented again revokes every token in its family.
+     * - An expired token is rejected before it is marked used, so a client retrying it does not
+     * trigger reuse detection.
+     *
+     * @param rawToken the refresh token presented by the client.
+     * @return the owning user and the successor token.
+     * @throws BadCredentialsException if the token cannot be exchanged.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(@NonNull String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        // Checked first, so retrying with an expired token is not mistaken for reuse
+        if (!token.getExpiresAt().isAfter(Instant.now())) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        if (token.isRevoked() || refreshTokenRepository.markUsed(token.getId()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+            log.warn("Refresh token reuse detected: userId={} family={} revoked={}",
+                    token.getUser().getId(), token.getFamilyId(), revoked);
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        return new Rotation(token.getUser(), create(token.getUser(), token.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family a refresh token belongs to, ending the session it was issued for.
+     * Unknown tokens are ignored.
+     *
+     * @param rawToken the refresh token presented by the client.
+     */
+    @Transactional
+    public void revokeFamily(@NonNull String rawToken) {
+        refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Revokes every refresh token family of a user, ending all of their sessions.
+     *
+     * Impact:
+     * Joins the caller's transaction, so the revocation commits together with the password
+     * change that requires it.
+     *
+     * @param userId the id of the user.
+     */
+    @Transactional
+    public void revokeAll(@NonNull Long userId) {
+        int revoked = refreshTokenRepository.revokeAllForUser(userId);
+        log.debug("Revoked refresh tokens: userId={} revoked={}", userId, revoked);
+    }
+
+    /**
+     * Deletes refresh tokens that have expired.
+     */
+    @Scheduled(fixedDelayString = "${spring.jwt.refresh.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        return rawToken;
+    }
+
+    /**
+     * Hashes a raw refresh token for storage and lookup. The token already carries 256 bits of
+     * entropy, so a plain SHA-256 is sufficient and keeps the lookup cheap.
+     */
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
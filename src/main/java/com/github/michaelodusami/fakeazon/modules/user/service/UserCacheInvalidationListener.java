@@ -0,0 +1,121 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserCacheInvalidation;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
+import com.github.michaelodusami.fakeazon.security.TokenRevocationService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The UserCacheInvalidationListener class applies user cache invalidations published by any
+ * instance to this instance's caches.
+ *
+ * Purpose:
+ * Consumes the `fakeazon.user-cache.invalidation.topic` topic in a consumer group of its own,
+ * so every instance receives every invalidation, and evicts the named users locally.
+ *
+ * Why It Matters:
+ * Records are consumed in batches, one poll at a time, so a burst of mutations costs one pass
+ * over the caches instead of one wake-up per record. Invalidations published by this instance
+ * are applied again as well; that is harmless and also drops entries reloaded between the
+ * local eviction and the commit of the change.
+ *
+ * Impact on the Application:
+ * - Only created when `fakeazon.user-cache.invalidation.enabled` is true.
+ * - Starts from the latest offset: a new instance has nothing cached yet.
+ * - Adds the invalidated emails to the `RegisteredEmailFilter`, so users registered elsewhere
+ * can log in here before the next filter rebuild.
+ * - Adds revoked token ids to the `TokenRevocationService` filter, so a token revoked elsewhere
+ * is rejected here right away.
+ * - Publishes `user.cache.invalidation.lag`, the time from sending an invalidation to applying
+ * it, and `user.cache.invalidation.batch.size`.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "fakeazon.user-cache.invalidation.enabled", havingValue = "true")
+public class UserCacheInvalidationListener {
+
+    /**
+     * Id of the listener container, e.g. for looking it up in the `KafkaListenerEndpointRegistry`.
+     */
+    public static final String LISTENER_ID = "userCacheInvalidations";
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+
+    private final Timer lag;
+    private final DistributionSummary batchSize;
+
+    /**
+     * Constructs the UserCacheInvalidationListener.
+     *
+     * @param userCacheInvalidator   evicts the invalidated users from the local caches.
+     * @param registeredEmailFilter  records invalidated emails for the login pre-check.
+     * @param tokenRevocationService records token ids revoked on other instances.
+     * @param objectMapper           deserializes invalidations.
+     * @param meterRegistry          the registry the lag and batch metrics are published to.
+     */
+    @Autowired
+    public UserCacheInvalidationListener(UserCacheInvalidator userCacheInvalidator,
+            RegisteredEmailFilter registeredEmailFilter, TokenRevocationService tokenRevocationService,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+        this.lag = Timer.builder("user.cache.invalidation.lag")
+                .description("Time from publishing a user cache invalidation to applying it")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("user.cache.invalidation.batch.size")
+                .description("User cache invalidations applied per poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies one polled batch of invalidations.
+     *
+     * @param records the invalidation records, as JSON.
+     */
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, batch = "true",
+            topics = "${fakeazon.user-cache.invalidation.topic:fakeazon.user-cache-invalidations}",
+            groupId = "${fakeazon.user-cache.invalidation.group-prefix:fakeazon-user-cache}-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidations(List<ConsumerRecord<String, String>> records) {
+        batchSize.record(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            UserCacheInvalidation invalidation;
+            try {
+                invalidation = objectMapper.readValue(record.value(), UserCacheInvalidation.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping malformed user cache invalidation at offset {}: {}", record.offset(),
+                        e.getMessage());
+                continue;
+            }
+            userCacheInvalidator.evictLocally(invalidation);
+            invalidation.emails().forEach(registeredEmailFilter::add);
+            invalidation.tokenIds().forEach(tokenRevocationService::add);
+            lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+        }
+    }
+}
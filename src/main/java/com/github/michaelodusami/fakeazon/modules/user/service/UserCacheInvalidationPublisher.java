@@ -0,0 +1,113 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserCacheInvalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The UserCacheInvalidationPublisher class sends user cache invalidations to the other
+ * instances over Kafka.
+ *
+ * Purpose:
+ * Every instance keeps its own user caches, so a user changed on one instance would be served
+ * stale by the others until their entries expire. Publishing each eviction lets
+ * `UserCacheInvalidationListener` on every instance evict the same entries. Revoked access
+ * token ids travel the same way, so every instance's revocation filter learns them at once.
+ *
+ * Why It Matters:
+ * Sends are asynchronous and batched by the producer (`linger.ms`), so a mutation never waits
+ * for the broker. A failed send is logged and counted; the affected entries still expire after
+ * `fakeazon.user-cache.ttl`.
+ *
+ * Impact on the Application:
+ * - Only created when `fakeazon.user-cache.invalidation.enabled` is true.
+ * - Publishes `user.cache.invalidations.published` counters tagged by outcome.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "fakeazon.user-cache.invalidation.enabled", havingValue = "true")
+public class UserCacheInvalidationPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    private final Counter sent;
+    private final Counter failed;
+
+    /**
+     * Constructs the UserCacheInvalidationPublisher.
+     *
+     * @param kafkaTemplate the template invalidations are sent with.
+     * @param objectMapper  serializes invalidations as JSON.
+     * @param topic         the topic every instance consumes.
+     * @param meterRegistry the registry the publish counters are published to.
+     */
+    @Autowired
+    public UserCacheInvalidationPublisher(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper,
+            @Value("${fakeazon.user-cache.invalidation.topic:fakeazon.user-cache-invalidations}") String topic,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+        this.sent = published(meterRegistry, "sent");
+        this.failed = published(meterRegistry, "failed");
+    }
+
+    /**
+     * Publishes an invalidation to every instance, including this one.
+     *
+     * @param invalidation the users whose cache entries are out of date, and any revoked tokens.
+     */
+    public void publish(UserCacheInvalidation invalidation) {
+        if (invalidation.ids().isEmpty() && invalidation.emails().isEmpty() && invalidation.tokenIds().isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(invalidation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + invalidation, e);
+        }
+        try {
+            // No key: invalidations are idempotent, so they may spread over partitions in any order
+            kafkaTemplate.send(topic, payload).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    sent.increment();
+                } else {
+                    fail(invalidation, ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Raised when the broker's metadata cannot be fetched within max.block.ms
+            fail(invalidation, ex);
+        }
+    }
+
+    private void fail(UserCacheInvalidation invalidation, Throwable ex) {
+        failed.increment();
+        log.warn("Could not publish user cache invalidation {}: {}", invalidation, ex.getMessage());
+    }
+
+    private static Counter published(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.cache.invalidations.published")
+                .description("User cache invalidations sent to other instances by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
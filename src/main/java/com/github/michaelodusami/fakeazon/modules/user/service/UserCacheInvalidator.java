@@ -0,0 +1,132 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserCacheInvalidation;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.security.VerifiedTokenCache;
+
+/**
+ * The UserCacheInvalidator class evicts a user from every user cache.
+ *
+ * Purpose:
+ * A user is cached under its id and under its email, in several caches. Mutations know the
+ * user but not the cache layout; this class maps one user to all of its cache entries.
+ *
+ * Impact on the Application:
+ * - Called after a user change is saved, so the next read reloads it from the database.
+ * - Also evicts the principals `VerifiedTokenCache` holds for the user, so tokens already in use
+ * see new roles, a new password or a deletion on their next request.
+ * - Evicts the email keys the caller passes, so an email change can evict the old and the new
+ * address.
+ * - When `fakeazon.user-cache.invalidation.enabled` is set, also publishes the eviction so every
+ * other instance evicts the same entries.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+public class UserCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ObjectProvider<UserCacheInvalidationPublisher> publisher;
+
+    /**
+     * Constructs the UserCacheInvalidator.
+     *
+     * @param cacheManager       the cache manager holding the user caches.
+     * @param verifiedTokenCache the cache of principals resolved for bearer tokens.
+     * @param publisher          the publisher of invalidations to other instances, when enabled.
+     */
+    @Autowired
+    public UserCacheInvalidator(CacheManager cacheManager, VerifiedTokenCache verifiedTokenCache,
+            ObjectProvider<UserCacheInvalidationPublisher> publisher) {
+        this.cacheManager = cacheManager;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Evicts a user under its current id and email.
+     *
+     * @param user the changed or deleted user.
+     */
+    public void evict(User user) {
+        evict(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Evicts a user under an id and any number of email addresses.
+     *
+     * @param id     the user's id, or null.
+     * @param emails the user's email addresses; null entries are skipped.
+     */
+    public void evict(Long id, String... emails) {
+        evict(new UserCacheInvalidation(Stream.ofNullable(id).toList(),
+                Stream.of(emails).filter(Objects::nonNull).toList()));
+    }
+
+    /**
+     * Evicts many users under their current ids and emails, as one invalidation.
+     *
+     * @param users the changed users.
+     */
+    public void evictAll(Collection<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        List<String> emails = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user.getId() != null) {
+                ids.add(user.getId());
+            }
+            if (user.getEmail() != null) {
+                emails.add(user.getEmail());
+            }
+        }
+        evict(new UserCacheInvalidation(ids, emails));
+    }
+
+    /**
+     * Evicts the entries of an invalidation from this instance's caches only.
+     *
+     * Purpose:
+     * Applies invalidations received from other instances without publishing them again.
+     *
+     * @param invalidation the users to evict.
+     */
+    public void evictLocally(UserCacheInvalidation invalidation) {
+        for (Long id : invalidation.ids()) {
+            evict(CacheConfig.USERS_BY_ID, id);
+            verifiedTokenCache.invalidateUser(id);
+        }
+        for (String email : invalidation.emails()) {
+            String key = CacheConfig.emailKey(email);
+            evict(CacheConfig.USERS_BY_EMAIL, key);
+            evict(CacheConfig.USER_DETAILS, key);
+            verifiedTokenCache.invalidateSubject(email);
+        }
+    }
+
+    private void evict(UserCacheInvalidation invalidation) {
+        evictLocally(invalidation);
+        publisher.ifAvailable(p -> p.publish(invalidation));
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
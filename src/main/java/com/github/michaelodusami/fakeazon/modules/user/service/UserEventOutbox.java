@@ -0,0 +1,107 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserLifecycleEvent;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.entity.UserOutboxEvent;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserOutboxRepository;
+
+/**
+ * The UserEventOutbox class records user lifecycle events in the `user_outbox` table.
+ *
+ * Purpose:
+ * Other services need to know when users register, change roles or are deleted. Publishing to
+ * Kafka from the request would add broker latency to every change and could publish changes
+ * that then roll back. Instead the event is inserted in the caller's transaction and published
+ * later by `UserOutboxRelay`.
+ *
+ * Impact on the Application:
+ * - Must be called inside the transaction making the change; it fails otherwise.
+ * - Does nothing unless `fakeazon.user-events.enabled` is true, so the table does not grow
+ * without a relay draining it.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+public class UserEventOutbox {
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    /**
+     * Constructs the UserEventOutbox.
+     *
+     * @param userOutboxRepository the repository events are written to.
+     * @param objectMapper         serializes the event payloads.
+     * @param enabled              whether user events are published at all.
+     */
+    @Autowired
+    public UserEventOutbox(UserOutboxRepository userOutboxRepository, ObjectMapper objectMapper,
+            @Value("${fakeazon.user-events.enabled:false}") boolean enabled) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records an event for one user.
+     *
+     * @param type what happened to the user.
+     * @param user the user right after the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UserEventType type, User user) {
+        if (enabled) {
+            userOutboxRepository.save(newEvent(type, user, Instant.now()));
+        }
+    }
+
+    /**
+     * Records the same event for many users.
+     *
+     * @param type  what happened to the users.
+     * @param users the users right after the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(UserEventType type, Collection<User> users) {
+        if (enabled) {
+            Instant now = Instant.now();
+            List<UserOutboxEvent> events = new ArrayList<>(users.size());
+            for (User user : users) {
+                events.add(newEvent(type, user, now));
+            }
+            userOutboxRepository.saveAll(events);
+        }
+    }
+
+    private UserOutboxEvent newEvent(UserEventType type, User user, Instant now) {
+        UserLifecycleEvent event = new UserLifecycleEvent(type, user.getId(), user.getEmail(),
+                EnumSet.copyOf(user.getRoles()), now);
+        try {
+            return UserOutboxEvent.builder()
+                    .userId(user.getId())
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The UserExportService class writes the whole users table as NDJSON.
+ *
+ * Purpose:
+ * Feeds the admin analytics jobs with one JSON object per user (id, name, email, roles,
+ * createdAt, updatedAt), without ever building the full list.
+ *
+ * Why It Matters:
+ * Users are read through a forward-only database cursor in a read-only transaction, written
+ * straight to the response and detached right away, so the persistence context and the heap
+ * stay flat whether the table holds a thousand rows or millions.
+ *
+ * Impact on the Application:
+ * - Password hashes are never exported.
+ * - The export is one consistent snapshot, since it runs in a single transaction.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final int FLUSH_EVERY = 1_000; // Rows between flushes to the client
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructs the UserExportService.
+     *
+     * @param userRepository     the repository users are streamed from.
+     * @param objectMapper       supplies the JSON generator settings.
+     * @param entityManager      the shared entity manager, used to detach exported users.
+     * @param transactionManager runs the export in one read-only transaction.
+     */
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes every user to {@code output} as NDJSON, in id order.
+     *
+     * @param output where users are written; flushed periodically and at the end, not closed.
+     * @return the number of users written.
+     * @throws IOException if writing to {@code output} fails.
+     */
+    public long exportUsers(OutputStream output) throws IOException {
+        long startedAt = System.nanoTime();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // Rows are separated by the newline written after each
+
+            Long exported = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<User> users = userRepository.streamAll()) {
+                    for (User user : (Iterable<User>) users::iterator) {
+                        write(generator, user);
+                        entityManager.detach(user); // Keeps the persistence context from growing
+                        if (++count % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+
+            generator.flush();
+            log.info("User export finished: users={} in {} ms", exported, (System.nanoTime() - startedAt) / 1_000_000);
+            return exported;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(JsonGenerator generator, User user) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", user.getId());
+        generator.writeStringField("name", user.getName());
+        generator.writeStringField("email", user.getEmail());
+        generator.writeArrayFieldStart("roles");
+        for (UserRole role : user.getRoles()) {
+            generator.writeString(role.getRole());
+        }
+        generator.writeEndArray();
+        writeTimestamp(generator, "createdAt", user.getCreatedAt());
+        writeTimestamp(generator, "updatedAt", user.getUpdatedAt());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserImportResult;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserImportResult.Status;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.security.PasswordHashingUnavailableException;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * The UserImportService class registers users in bulk from an NDJSON or CSV stream.
+ *
+ * Purpose:
+ * Onboards partner customer lists of hundreds of thousands of users in one request, with the
+ * same rules as `POST /v1/auth/register`: `RegisterRequest` validation, hashed passwords, the
+ * USER role and one account per email.
+ *
+ * Why It Matters:
+ * Registering users one request at a time costs a round trip, a transaction and a serial
+ * password hash per user. Here the input is read line by line and processed in chunks of
+ * `fakeazon.user-import.chunk-size` rows, so memory stays bounded whatever the file size:
+ * - duplicates are found with one indexed query per chunk instead of one lookup per row;
+ * - passwords are hashed in parallel on `fakeazon.user-import.hashing-parallelism` threads, which
+ *   still go through the bounded password encoder so logins keep their share of the CPU;
+ * - each chunk is inserted in one transaction, which Hibernate sends as JDBC batches.
+ *
+ * Impact on the Application:
+ * - One `UserImportResult` per row is written as NDJSON, in input order, after each chunk.
+ * - If a chunk hits the email index anyway (a concurrent registration), that chunk falls back to
+ *   row-by-row inserts so only the conflicting rows are reported as duplicates.
+ * - Chunks already written stay committed if the import is interrupted.
+ * - Each imported user gets a `USER_REGISTERED` outbox event, committed with its chunk.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class UserImportService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password");
+
+    /**
+     * Supported input formats.
+     */
+    public enum Format {
+        NDJSON, // One JSON RegisterRequest per line.
+        CSV // A header naming the name, email and password columns, then one user per line.
+    }
+
+    private final UserRepository userRepository;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final UserEventOutbox userEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int hashingAttempts;
+    private final ExecutorService hashingExecutor;
+
+    /**
+     * Constructs the UserImportService.
+     *
+     * @param userRepository        the repository users are written to.
+     * @param registeredEmailFilter records imported emails for the login pre-check.
+     * @param userCacheInvalidator  announces imported users to the other instances.
+     * @param userEventOutbox       records a registration event per imported user.
+     * @param transactionTemplate   inserts each chunk and its events in one transaction.
+     * @param passwordEncoder       the encoder used to hash imported passwords.
+     * @param validator             validates each row as a `RegisterRequest`.
+     * @param objectMapper          reads NDJSON rows and writes results.
+     * @param chunkSize             rows per duplicate check, hashing round and insert transaction.
+     * @param hashingParallelism    threads hashing passwords; zero uses half the available CPUs.
+     * @param hashingAttempts       attempts per password when hashing is shedding load.
+     */
+    @Autowired
+    public UserImportService(UserRepository userRepository, RegisteredEmailFilter registeredEmailFilter,
+            UserCacheInvalidator userCacheInvalidator, UserEventOutbox userEventOutbox,
+            TransactionTemplate transactionTemplate, PasswordEncoder passwordEncoder, Validator validator, ObjectMapper objectMapper,
+            @Value("${fakeazon.user-import.chunk-size:500}") int chunkSize,
+            @Value("${fakeazon.user-import.hashing-parallelism:0}") int hashingParallelism,
+            @Value("${fakeazon.user-import.hashing-attempts:5}") int hashingAttempts) {
+        this.userRepository = userRepository;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.userEventOutbox = userEventOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.hashingAttempts = hashingAttempts;
+        int threads = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingExecutor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-", 1).daemon().factory());
+    }
+
+    /**
+     * Imports every row of {@code input}, writing one NDJSON result line per row to {@code output}.
+     *
+     * @param input  the NDJSON or CSV body, read as UTF-8.
+     * @param format the format of {@code input}.
+     * @param output where results are streamed; flushed after every chunk.
+     * @throws IOException if reading the input or writing results fails.
+     */
+    public void importUsers(InputStream input, Format format, OutputStream output) throws IOException {
+        long startedAt = System.nanoTime();
+        Map<Status, Integer> totals = new EnumMap<>(Status.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Map<String, Integer> columns = null;
+        if (format == Format.CSV) {
+            columns = readCsvHeader(reader);
+            if (columns == null) {
+                write(output, UserImportResult.rejected(0, null, Status.INVALID,
+                        "CSV header must name the columns " + String.join(", ", CSV_COLUMNS)));
+                output.flush();
+                return;
+            }
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            chunk.add(format == Format.CSV ? parseCsvRow(rowNumber, line, columns) : parseJsonRow(rowNumber, line));
+            if (chunk.size() == chunkSize) {
+                writeChunk(process(chunk), output, totals);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(process(chunk), output, totals);
+        }
+
+        log.info("User import finished: rows={} results={} in {} ms", rowNumber, totals,
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * A parsed input row: either a request to register or the reason it was rejected.
+     */
+    private record Row(long number, RegisterRequest request, UserImportResult result) {
+
+        String email() {
+            return request != null ? request.getEmail() : result.getEmail();
+        }
+    }
+
+    /**
+     * Registers the valid rows of one chunk and returns a result for every row, in order.
+     */
+    private List<UserImportResult> process(List<Row> rows) {
+        UserImportResult[] results = new UserImportResult[rows.size()];
+        Map<String, Integer> pending = new HashMap<>(); // Lower-cased email -> index of the row importing it
+
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            if (row.result() != null) {
+                results[i] = row.result();
+            } else if (pending.putIfAbsent(emailKey(row.email()), i) != null) {
+                results[i] = UserImportResult.rejected(row.number(), row.email(), Status.DUPLICATE,
+                        "Email appears earlier in the import");
+            }
+        }
+        if (!pending.isEmpty()) {
+            // Earlier chunks are already committed, so this also catches duplicates across chunks
+            for (String registered : userRepository.findRegisteredEmails(pending.keySet())) {
+                Integer i = pending.remove(registered);
+                if (i != null) {
+                    results[i] = UserImportResult.rejected(rows.get(i).number(), rows.get(i).email(),
+                            Status.DUPLICATE, "Email already registered");
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            insert(rows, new ArrayList<>(pending.values()), results);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Hashes the passwords of the given rows in parallel and inserts them in one transaction.
+     */
+    private void insert(List<Row> rows, List<Integer> indexes, UserImportResult[] results) {
+        indexes.sort(null); // Keep insert order, and so id order, aligned with the input
+        List<CompletableFuture<String>> hashes = new ArrayList<>(indexes.size());
+        for (int i : indexes) {
+            String password = rows.get(i).request().getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> hash(password), hashingExecutor));
+        }
+
+        List<Integer> hashed = new ArrayList<>(indexes.size());
+        List<User> users = new ArrayList<>(indexes.size());
+        for (int n = 0; n < indexes.size(); n++) {
+            int i = indexes.get(n);
+            Row row = rows.get(i);
+            try {
+                users.add(newUser(row.request(), hashes.get(n).join()));
+                hashed.add(i);
+            } catch (CompletionException e) {
+                log.warn("Could not hash password for import row {}", row.number(), e.getCause());
+                results[i] = UserImportResult.rejected(row.number(), row.email(), Status.FAILED,
+                        "Password hashing unavailable");
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userEventOutbox.recordAll(UserEventType.USER_REGISTERED, users);
+            });
+            for (int n = 0; n < users.size(); n++) {
+                Row row = rows.get(hashed.get(n));
+                registeredEmailFilter.add(row.email());
+                results[hashed.get(n)] = UserImportResult.created(row.number(), row.email(), users.get(n).getId());
+            }
+            userCacheInvalidator.evictAll(users); // One invalidation per chunk for the other instances
+        } catch (DataIntegrityViolationException batchFailure) {
+            // A concurrent registration took one of the emails; retry row by row to isolate it
+            for (int n = 0; n < users.size(); n++) {
+                int i = hashed.get(n);
+                results[i] = insertOne(rows.get(i), users.get(n).getPassword());
+            }
+        }
+    }
+
+    private UserImportResult insertOne(Row row, String passwordHash) {
+        try {
+            User saved = transactionTemplate.execute(status -> {
+                User inserted = userRepository.saveAndFlush(newUser(row.request(), passwordHash));
+                userEventOutbox.record(UserEventType.USER_REGISTERED, inserted);
+                return inserted;
+            });
+            registeredEmailFilter.add(row.email());
+            userCacheInvalidator.evict(saved);
+            return UserImportResult.created(row.number(), row.email(), saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            if (UserService.isDuplicateEmail(e)) {
+                return UserImportResult.rejected(row.number(), row.email(), Status.DUPLICATE, "Email already registered");
+            }
+            log.warn("Could not insert import row {}", row.number(), e);
+            return UserImportResult.rejected(row.number(), row.email(), Status.FAILED, "Could not store user");
+        }
+    }
+
+    private static User newUser(RegisterRequest request, String passwordHash) {
+        User user = new User();
+        user.setName(request.getName());
+        user.setEmail(request.getEmail());
+        user.setPassword(passwordHash);
+        user.getRoles().add(UserRole.ROLE_USER);
+        return user;
+    }
+
+    /**
+     * Hashes a password, backing off while the bounded encoder is shedding load.
+     */
+    private String hash(String password) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (PasswordHashingUnavailableException e) {
+                if (attempt >= hashingAttempts) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(e.getRetryAfter());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Row parseJsonRow(long number, String line) {
+        try {
+            return validate(number, objectMapper.readValue(line, RegisterRequest.class));
+        } catch (JsonProcessingException e) {
+            return new Row(number, null, UserImportResult.rejected(number, null, Status.INVALID, "Malformed JSON"));
+        }
+    }
+
+    private Row parseCsvRow(long number, String line, Map<String, Integer> columns) {
+        List<String> fields = parseCsvLine(line);
+        if (fields == null) {
+            return new Row(number, null,
+                    UserImportResult.rejected(number, null, Status.INVALID, "Unterminated quoted field"));
+        }
+        // Passwords are taken as given, like in NDJSON; surrounding whitespace may be part of them
+        return validate(number, new RegisterRequest(strippedField(fields, columns.get("name")),
+                strippedField(fields, columns.get("email")), field(fields, columns.get("password"))));
+    }
+
+    private Row validate(long number, RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return new Row(number, request, null);
+        }
+        String error = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return new Row(number, null, UserImportResult.rejected(number, request.getEmail(), Status.INVALID, error));
+    }
+
+    /**
+     * Reads the CSV header and maps each required column to its position.
+     *
+     * @return the column positions, or null if a required column is missing.
+     */
+    private static Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        List<String> header = line != null ? parseCsvLine(line) : null;
+        if (header == null) {
+            return null;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).strip().toLowerCase(Locale.ROOT);
+            if (CSV_COLUMNS.contains(column)) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return columns.keySet().containsAll(CSV_COLUMNS) ? columns : null;
+    }
+
+    /**
+     * Splits one CSV line into fields. Fields may be double-quoted, with {@code ""} standing for a
+     * quote inside a quoted field; quoted fields cannot span lines.
+     *
+     * @return the fields, or null if a quoted field is not terminated.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return quoted ? null : fields;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String strippedField(List<String> fields, int index) {
+        String field = field(fields, index);
+        return field != null ? field.strip() : null;
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private void writeChunk(List<UserImportResult> results, OutputStream output, Map<Status, Integer> totals)
+            throws IOException {
+        for (UserImportResult result : results) {
+            write(output, result);
+            totals.merge(result.getStatus(), 1, Integer::sum);
+        }
+        output.flush();
+    }
+
+    private void write(OutputStream output, UserImportResult result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    /**
+     * Stops the hashing threads when the application context closes.
+     */
+    @Override
+    public void close() {
+        hashingExecutor.shutdownNow();
+    }
+}
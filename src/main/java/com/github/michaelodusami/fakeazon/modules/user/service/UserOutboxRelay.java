@@ -0,0 +1,224 @@
+package com.github.michaelodusami.fakeazon.modules.user.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.UserOutboxEvent;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The UserOutboxRelay class publishes the user events recorded by `UserEventOutbox` to Kafka.
+ *
+ * Purpose:
+ * Every `fakeazon.user-events.relay-interval` the relay drains the `user_outbox` table in id
+ * order, `fakeazon.user-events.batch-size` events per transaction. Each batch is sent, the relay
+ * waits for the broker to acknowledge all of it, and only then deletes the rows and commits.
+ *
+ * Why It Matters:
+ * - The producer is idempotent (`enable.idempotence`, `acks=all`, at most 5 requests in flight),
+ * so broker-side retries neither duplicate nor reorder events. Records are keyed by user id,
+ * so the events of one user stay in order on one partition.
+ * - A batch that fails or times out is rolled back and sent again on the next run, so delivery
+ * is at least once; consumers drop duplicates by the `eventId` header.
+ * - Only the instance holding a Postgres advisory lock relays, so several instances never
+ * publish the same rows or interleave their order.
+ *
+ * Impact on the Application:
+ * - Only created when `fakeazon.user-events.enabled` is true.
+ * - Publishes `user.outbox.relayed` (events published; its rate is the relay throughput),
+ * `user.outbox.relay.failures`, the `user.outbox.relay.batch` timer, and the
+ * `user.outbox.backlog` and `user.outbox.oldest.age` gauges, refreshed after every run.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "fakeazon.user-events.enabled", havingValue = "true")
+public class UserOutboxRelay {
+
+    /**
+     * Name of the record header carrying the outbox event id.
+     */
+    public static final String EVENT_ID_HEADER = "eventId";
+
+    private static final Logger log = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    /**
+     * Constructs the UserOutboxRelay and its idempotent producer.
+     *
+     * @param userOutboxRepository the outbox events are read from and deleted in.
+     * @param transactionTemplate  runs each batch in its own transaction.
+     * @param kafkaProperties      the application's Kafka settings, the producer is based on.
+     * @param topic                the topic user events are published to.
+     * @param batchSize            the maximum number of events per batch.
+     * @param sendTimeout          how long to wait for the broker to acknowledge a batch.
+     * @param meterRegistry        the registry the relay metrics are published to.
+     */
+    @Autowired
+    public UserOutboxRelay(UserOutboxRepository userOutboxRepository, TransactionTemplate transactionTemplate,
+            KafkaProperties kafkaProperties,
+            @Value("${fakeazon.user-events.topic:fakeazon.user-events}") String topic,
+            @Value("${fakeazon.user-events.batch-size:500}") int batchSize,
+            @Value("${fakeazon.user-events.send-timeout:PT30S}") Duration sendTimeout,
+            MeterRegistry meterRegistry) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+
+        Map<String, Object> producerProperties = kafkaProperties.buildProducerProperties(null);
+        producerProperties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProperties.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProperties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        producerProperties.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        // Give up on a batch within the send timeout; delivery.timeout.ms must exceed request.timeout.ms + linger.ms
+        producerProperties.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) sendTimeout.toMillis());
+        producerProperties.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) sendTimeout.toMillis() / 2);
+        producerProperties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeout.toMillis());
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producerProperties,
+                new StringSerializer(), new StringSerializer());
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        this.relayed = Counter.builder("user.outbox.relayed")
+                .description("User events published from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.outbox.relay.failures")
+                .description("Outbox batches that could not be published and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("user.outbox.relay.batch")
+                .description("Time to publish one outbox batch and delete it")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.backlog", backlog, AtomicLong::get)
+                .description("User events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.oldest.age", oldestAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest user event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes every event in the outbox, one batch per transaction.
+     *
+     * Impact:
+     * Stops at the first failed batch; its events stay in the outbox for the next run.
+     */
+    @Scheduled(fixedDelayString = "${fakeazon.user-events.relay-interval:PT1S}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = batchTimer.recordCallable(this::relayBatch);
+            } while (published == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Could not relay user events, retrying next run: {}", e.getMessage());
+        }
+        updateBacklog();
+    }
+
+    /**
+     * Publishes and deletes the oldest batch of events.
+     *
+     * @return the number of events published; zero if the outbox is empty or another instance
+     *         is relaying.
+     */
+    private int relayBatch() {
+        return transactionTemplate.execute(status -> {
+            if (!userOutboxRepository.tryLockRelay()) {
+                return 0;
+            }
+            List<UserOutboxEvent> events = userOutboxRepository.findOldest(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+            for (UserOutboxEvent event : events) {
+                ProducerRecord<String, String> record = new ProducerRecord<>(topic,
+                        String.valueOf(event.getUserId()), event.getPayload());
+                record.headers().add(EVENT_ID_HEADER,
+                        String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+                sends.add(kafkaTemplate.send(record));
+            }
+            awaitAcknowledged(sends);
+            userOutboxRepository.deleteAllInBatch(events);
+            relayed.increment(events.size());
+            return events.size();
+        });
+    }
+
+    private void awaitAcknowledged(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing user events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("User events were not acknowledged: " + e.getMessage(), e);
+        }
+    }
+
+    private void updateBacklog() {
+        try {
+            backlog.set(userOutboxRepository.count());
+            Instant oldest = userOutboxRepository.findOldestCreatedAt();
+            oldestAgeMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+        } catch (RuntimeException e) {
+            log.debug("Could not measure the user event backlog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the producer when the application context closes.
+     */
+    @PreDestroy
+    public void close() {
+        producerFactory.destroy();
+    }
+}
@@ -1,15 +1,31 @@
 package com.github.michaelodusami.fakeazon.modules.user.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
 import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserPage;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
 import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserSpecifications;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
 
 import lombok.NonNull;
 
@@ -33,6 +49,11 @@ import lombok.NonNull;
  * - Ensures secure password handling through encoding.
  * - Implements business rules like preventing duplicate email registrations.
  * - Facilitates role-based user management and updates.
+ * - Serves lookups by id and email from the user caches (see `CacheConfig`) and evicts a
+ * user from them whenever it is changed or deleted.
+ * - Adds new and changed emails to the `RegisteredEmailFilter`, so those users can log in at once.
+ * - Records registrations, role changes and deletions in the `UserEventOutbox`, in the same
+ * transaction as the change, for other services.
  * 
  * @author Michael-Andre Odusami
  * @version 1.0.0
@@ -40,19 +61,44 @@ import lombok.NonNull;
 @Service
 public class UserService {
 
+    /**
+     * The largest page the user listing returns, whatever the requested limit.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
+    private UserCacheInvalidator userCacheInvalidator;
+    private RegisteredEmailFilter registeredEmailFilter;
+    private UserEventOutbox userEventOutbox;
+    private RefreshTokenService refreshTokenService;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Constructs the UserService with required dependencies.
      * 
-     * @param userRepository  the repository for interacting with the user database.
-     * @param passwordEncoder the encoder used to securely hash passwords.
+     * @param userRepository        the repository for interacting with the user database.
+     * @param passwordEncoder       the encoder used to securely hash passwords.
+     * @param userCacheInvalidator  evicts changed users from the user caches.
+     * @param registeredEmailFilter records registered emails for the login pre-check.
+     * @param userEventOutbox       records user lifecycle events for other services.
+     * @param refreshTokenService   revokes the user's sessions when the password changes.
+     * @param transactionTemplate   writes each change and its event in one transaction.
      */
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            UserCacheInvalidator userCacheInvalidator, RegisteredEmailFilter registeredEmailFilter,
+            UserEventOutbox userEventOutbox, RefreshTokenService refreshTokenService,
+            TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.userEventOutbox = userEventOutbox;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -71,6 +117,62 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of users using keyset pagination.
+     * 
+     * Purpose:
+     * Lists users without loading the whole table: each page is a `WHERE id > :after
+     * ORDER BY id LIMIT n` query, optionally filtered by role and creation date.
+     * 
+     * Impact:
+     * - Fetches one row more than the page size to know whether a next page exists,
+     * so no COUNT query is needed.
+     * - The page size is clamped to 1..{@value #MAX_PAGE_SIZE}.
+     * 
+     * @param cursor        the `nextCursor` of the previous page, or null for the first page.
+     * @param limit         the requested page size.
+     * @param role          only list users with this role, or null.
+     * @param createdFrom   only list users created at or after this time, or null.
+     * @param createdBefore only list users created before this time, or null.
+     * @return the page and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is malformed or the role is unknown.
+     */
+    public UserPage findPage(String cursor, int limit, String role, LocalDateTime createdFrom,
+            LocalDateTime createdBefore) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Specification<User> filter = Specification.where(UserSpecifications.idAfter(decodeCursor(cursor)))
+                .and(UserSpecifications.hasRole(role == null ? null : UserRole.fromString(role)))
+                .and(UserSpecifications.createdFrom(createdFrom))
+                .and(UserSpecifications.createdBefore(createdBefore));
+
+        List<User> users = userRepository.findBy(filter, query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        if (users.size() <= size) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        return new UserPage(page, encodeCursor(page.get(size - 1).getId()));
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+            // Fall through to the common error below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
     /**
      * Finds a user by their unique ID.
      * 
@@ -79,11 +181,12 @@ public class UserService {
      * 
      * Impact:
      * Supports user-specific operations such as profile management or account
-     * updates.
+     * updates. Found users are cached; unknown ids are not.
      * 
      * @param id the ID of the user to find.
      * @return an Optional containing the user if found, otherwise empty.
      */
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, unless = "#result == null")
     public Optional<User> findById(@NonNull Long id) {
         return userRepository.findById(id);
     }
@@ -96,10 +199,13 @@ public class UserService {
      * 
      * Impact:
      * Validates if a user exists during login or registration processes.
+     * Found users are cached under the lower-cased email; unknown emails are not.
      * 
      * @param email the email address of the user.
      * @return an Optional containing the user if found, otherwise empty.
      */
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, keyGenerator = CacheConfig.EMAIL_KEY_GENERATOR,
+            unless = "#result == null")
     public Optional<User> findByEmail(@NonNull String email) {
         return userRepository.findByEmail(email);
     }
@@ -116,34 +222,29 @@ public class UserService {
      * 
      * @param registerRequest the details of the user to register.
      * @return an Optional containing the newly registered user.
+     * @throws IllegalArgumentException if the email is already registered.
      */
     public Optional<User> save(@NonNull RegisterRequest registerRequest) {
 
-        if (findByEmail(registerRequest.getEmail()).isPresent()) {
-            throw new IllegalArgumentException("Email already registered");
-        }
         User user = new User();
         user.setName(registerRequest.getName());
         user.setEmail(registerRequest.getEmail());
-        user.getRoles().add(UserRole.ROLE_USER.getRole());
+        user.getRoles().add(UserRole.ROLE_USER);
         String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
         user.setPassword(encodedPassword);
-        User savedUser = userRepository.save(user);
+        User savedUser = insert(user);
         return Optional.of(savedUser);
     }
 
     public Optional<User> save(@NonNull RegisterRequest registerRequest, UserRole role) {
 
-        if (findByEmail(registerRequest.getEmail()).isPresent()) {
-            throw new IllegalArgumentException("Email already registered");
-        }
         User user = new User();
         user.setName(registerRequest.getName());
         user.setEmail(registerRequest.getEmail());
-        user.getRoles().add(role.getRole());
+        user.getRoles().add(role);
         String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
         user.setPassword(encodedPassword);
-        User savedUser = userRepository.save(user);
+        User savedUser = insert(user);
         return Optional.of(savedUser);
     }
 
@@ -162,17 +263,57 @@ public class UserService {
      */
     public Optional<User> save(@NonNull User user, UserRole role) {
 
-        if (findByEmail(user.getEmail()).isPresent()) {
-            throw new IllegalArgumentException("Email already registered");
-        }
-
         String encodedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(encodedPassword);
-        user.getRoles().add(role.getRole());
-        User savedUser = userRepository.save(user);
+        user.getRoles().add(role);
+        User savedUser = insert(user);
         return Optional.of(savedUser);
     }
 
+    /**
+     * Inserts a new user, relying on the `uk_users_email` index to reject duplicates.
+     * 
+     * Purpose:
+     * Replaces a check-then-insert, which costs an extra read and lets two concurrent
+     * registrations of the same email both pass the check.
+     * 
+     * Impact:
+     * Each registration is a single write; the flush surfaces the violation here so it
+     * can be reported as "Email already registered". The `USER_REGISTERED` event is written
+     * in the same transaction, after the password was hashed outside of it.
+     * 
+     * @param user the user to insert.
+     * @return the saved user.
+     */
+    private User insert(User user) {
+        try {
+            User savedUser = transactionTemplate.execute(status -> {
+                User inserted = userRepository.saveAndFlush(user);
+                userEventOutbox.record(UserEventType.USER_REGISTERED, inserted);
+                return inserted;
+            });
+            registeredEmailFilter.add(savedUser.getEmail());
+            userCacheInvalidator.evict(savedUser); // Also tells other instances about the new email
+            return savedUser;
+        } catch (DataIntegrityViolationException exception) {
+            if (isDuplicateEmail(exception)) {
+                throw new IllegalArgumentException("Email already registered");
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Tells whether an integrity violation was raised by the `uk_users_email` index.
+     * 
+     * @param exception the violation raised while writing a user.
+     * @return true if the write failed because the email is already registered.
+     */
+    static boolean isDuplicateEmail(DataIntegrityViolationException exception) {
+        return exception.getCause() instanceof ConstraintViolationException violation
+                && User.EMAIL_UNIQUE_INDEX.equalsIgnoreCase(violation.getConstraintName());
+    }
+
     /**
      * Deletes a user by their ID.
      * 
@@ -180,16 +321,25 @@ public class UserService {
      * Removes a user account from the system.
      * 
      * Impact:
-     * Enables account deletion for users or administrators.
+     * Enables account deletion for users or administrators. The `USER_DELETED` event is
+     * recorded in the same transaction as the delete.
      * 
      * @param id the ID of the user to delete.
      * @return true if the user was successfully deleted, otherwise false.
      */
     public boolean deleteUser(@NonNull Long id) {
-        if (findById(id).isEmpty()) {
+        Optional<User> user = transactionTemplate.execute(status -> {
+            Optional<User> existing = userRepository.findById(id);
+            existing.ifPresent(deleted -> {
+                userRepository.deleteById(id);
+                userEventOutbox.record(UserEventType.USER_DELETED, deleted);
+            });
+            return existing;
+        });
+        if (user.isEmpty()) {
             return false;
         }
-        userRepository.deleteById(id);
+        userCacheInvalidator.evict(user.get());
         return true;
     }
 
@@ -200,15 +350,51 @@ public class UserService {
      * Modifies a user's information such as name, email, password, or roles.
      * 
      * Impact:
-     * Provides flexibility to keep user information up-to-date.
+     * Provides flexibility to keep user information up-to-date. Adding a role the user did not
+     * have records a `USER_ROLES_CHANGED` event in the same transaction, and a new password revokes
+     * every refresh token of the user in it. The change is flushed inside the transaction, so an
+     * email already registered (in any case) is reported like a duplicate registration.
      * 
      * @param id          the ID of the user to update.
      * @param updatedUser the user object containing updated details.
      * @return an Optional containing the updated user if the update was successful.
+     * @throws IllegalArgumentException if the new email is already registered.
      */
     public Optional<User> updateUser(Long id, User updatedUser) {
+        // Hash before the transaction, so it does not hold a connection while hashing
+        String encodedPassword = updatedUser.getPassword() != null
+                ? passwordEncoder.encode(updatedUser.getPassword())
+                : null;
+        Optional<Update> update;
+        try {
+            update = transactionTemplate.execute(status -> apply(id, updatedUser, encodedPassword));
+        } catch (DataIntegrityViolationException exception) {
+            if (isDuplicateEmail(exception)) {
+                throw new IllegalArgumentException("Email already registered");
+            }
+            throw exception;
+        }
+        // Only once committed, so a concurrent read cannot cache the old row again
+        update.ifPresent(committed -> {
+            registeredEmailFilter.add(committed.user().getEmail());
+            userCacheInvalidator.evict(id, committed.previousEmail(), committed.user().getEmail());
+        });
+        return update.map(Update::user);
+    }
+
+    /**
+     * Applies an update to the stored user, inside the caller's transaction.
+     * 
+     * @param id              the ID of the user to update.
+     * @param updatedUser     the user object containing updated details.
+     * @param encodedPassword the new password, already hashed, or null to keep it.
+     * @return the saved user and its previous email, or empty if the user does not exist.
+     */
+    private Optional<Update> apply(Long id, User updatedUser, String encodedPassword) {
         // Find the existing user by ID
         return userRepository.findById(id).map(existingUser -> {
+            String previousEmail = existingUser.getEmail();
+            EnumSet<UserRole> previousRoles = EnumSet.copyOf(existingUser.getRoles());
             // Update fields from updatedUser
             if (updatedUser.getName() != null) {
                 existingUser.setName(updatedUser.getName());
@@ -216,18 +402,28 @@ public class UserService {
             if (updatedUser.getEmail() != null) {
                 existingUser.setEmail(updatedUser.getEmail());
             }
-            if (updatedUser.getPassword() != null) {
-                String encodedPassword = passwordEncoder.encode(updatedUser.getPassword());
+            if (encodedPassword != null) {
                 existingUser.setPassword(encodedPassword);
+                refreshTokenService.revokeAll(id);
             }
             if (updatedUser.getRoles() != null) {
                 existingUser.getRoles().addAll(updatedUser.getRoles());
             }
-            // Save and return the updated user
-            return userRepository.save(existingUser);
+            // Flush here, so a duplicate email surfaces before the commit
+            User savedUser = userRepository.saveAndFlush(existingUser);
+            if (!previousRoles.equals(savedUser.getRoles())) {
+                userEventOutbox.record(UserEventType.USER_ROLES_CHANGED, savedUser);
+            }
+            return new Update(savedUser, previousEmail);
         });
     }
 
+    /**
+     * A committed user update and the email the user had before it.
+     */
+    private record Update(User user, String previousEmail) {
+    }
+
     /**
      * Changes a user's password.
      * 
@@ -235,19 +431,25 @@ public class UserService {
      * Provides a secure way to update a user's password.
      * 
      * Impact:
-     * Improves account security by enabling password changes.
+     * Improves account security by enabling password changes. Every refresh token of the user is
+     * revoked in the same transaction as the new password, so sessions started with the old
+     * password, including stolen refresh tokens, cannot be extended.
      * 
      * @param id          the ID of the user.
      * @param newPassword the new password to set.
      * @return true if the password was successfully updated, otherwise false.
      */
     public boolean changePassword(Long id, String newPassword) {
-        return userRepository.findById(id).map(user -> {
-            String encodedPassword = passwordEncoder.encode(newPassword);
+        // Hash before the transaction, so it does not hold a connection while hashing
+        String encodedPassword = passwordEncoder.encode(newPassword);
+        Optional<User> changed = transactionTemplate.execute(status -> userRepository.findById(id).map(user -> {
             user.setPassword(encodedPassword);
             userRepository.save(user);
-            return true;
-        }).orElse(false);
+            refreshTokenService.revokeAll(id);
+            return user;
+        }));
+        changed.ifPresent(userCacheInvalidator::evict);
+        return changed.isPresent();
     }
 
     /**
@@ -259,11 +461,12 @@ public class UserService {
      * Impact:
      * Facilitates role-based management of users.
      * 
-     * @param role the role to filter users by.
+     * @param role the role to filter users by, e.g. `ADMIN`.
      * @return a list of users with the specified role.
+     * @throws IllegalArgumentException if the role is unknown.
      */
     public List<User> findUsersByRole(String role) {
-        return userRepository.findUsersByRole(role);
+        return userRepository.findUsersByRole(UserRole.fromString(role));
     }
 
 }
@@ -0,0 +1,211 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+/**
+ * The AdaptivePasswordEncoderFactory class builds the application's password encoder from a
+ * hashing algorithm and a target verification time.
+ *
+ * Purpose:
+ * Produces a `DelegatingPasswordEncoder` that hashes new passwords as `{bcrypt}`, `{argon2}` or
+ * `{pbkdf2}` and can verify all three, plus legacy BCrypt hashes stored without a prefix. The
+ * work factor of the chosen algorithm is calibrated at startup so one verification takes about
+ * the target time on the host CPU.
+ *
+ * Why It Matters:
+ * Cost can be tuned against login throughput by changing `fakeazon.password-hashing.target-time`
+ * or the algorithm. Stored hashes below the current policy report `upgradeEncoding() == true`,
+ * so they are re-hashed on the user's next successful login instead of through a migration.
+ *
+ * Impact on the Application:
+ * - Calibration never goes below the floors recommended for each algorithm (BCrypt cost 10,
+ * Argon2id t=2 with 19 MiB, PBKDF2-HMAC-SHA256 600,000 iterations).
+ * - PBKDF2 hashes are stored as `iterations$hash` so a later calibration can still verify them.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public final class AdaptivePasswordEncoderFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePasswordEncoderFactory.class);
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int BCRYPT_PROBE_STRENGTH = 8;
+
+    private static final int ARGON2_MEMORY_KB = 19 * 1024;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 20;
+
+    private static final int MIN_PBKDF2_ITERATIONS = 600_000;
+    private static final int MAX_PBKDF2_ITERATIONS = 10_000_000;
+    private static final int PBKDF2_PROBE_ITERATIONS = 50_000;
+
+    private AdaptivePasswordEncoderFactory() {
+    }
+
+    /**
+     * Creates an encoder whose work factor is calibrated to the target verification time.
+     *
+     * @param algorithm  the algorithm for new hashes: bcrypt, argon2 or pbkdf2.
+     * @param targetTime the desired duration of a single hash or verification.
+     * @return the delegating encoder.
+     */
+    public static PasswordEncoder create(String algorithm, Duration targetTime) {
+        String id = normalize(algorithm);
+        long started = System.nanoTime();
+        int cost = calibrate(id, targetTime);
+        log.info("Calibrated password hashing: algorithm={} cost={} target={}ms calibration={}ms", id, cost,
+                targetTime.toMillis(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return create(id, cost);
+    }
+
+    /**
+     * Creates an encoder with an explicit work factor.
+     *
+     * @param algorithm the algorithm for new hashes: bcrypt, argon2 or pbkdf2.
+     * @param cost      the BCrypt strength, or the Argon2 or PBKDF2 iteration count.
+     * @return the delegating encoder.
+     */
+    public static PasswordEncoder create(String algorithm, int cost) {
+        String id = normalize(algorithm);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(id.equals(BCRYPT) ? cost : MIN_BCRYPT_STRENGTH));
+        encoders.put(ARGON2, argon2(id.equals(ARGON2) ? cost : MIN_ARGON2_ITERATIONS));
+        encoders.put(PBKDF2, new IterationTaggedPbkdf2PasswordEncoder(id.equals(PBKDF2) ? cost : MIN_PBKDF2_ITERATIONS));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(id, encoders);
+        // Hashes written before prefixes were introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return delegating;
+    }
+
+    /**
+     * Picks the work factor whose estimated cost is closest to the target, never going below the
+     * algorithm's floor. BCrypt cost doubles per step; Argon2 and PBKDF2 scale linearly.
+     */
+    static int calibrate(String algorithm, Duration targetTime) {
+        double target = targetTime.toNanos();
+        switch (normalize(algorithm)) {
+            case BCRYPT: {
+                double probe = measure(bcrypt(BCRYPT_PROBE_STRENGTH));
+                int strength = BCRYPT_PROBE_STRENGTH + (int) Math.round(log2(target / probe));
+                return clamp(strength, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH);
+            }
+            case ARGON2: {
+                double probe = measure(argon2(1));
+                return clamp((int) Math.round(target / probe), MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS);
+            }
+            default: {
+                double probe = measure(new IterationTaggedPbkdf2PasswordEncoder(PBKDF2_PROBE_ITERATIONS));
+                int iterations = (int) Math.min(Integer.MAX_VALUE, Math.round(PBKDF2_PROBE_ITERATIONS * target / probe));
+                return clamp(iterations / 10_000 * 10_000, MIN_PBKDF2_ITERATIONS, MAX_PBKDF2_ITERATIONS);
+            }
+        }
+    }
+
+    private static BCryptPasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KB, iterations);
+    }
+
+    /**
+     * Returns the median duration of a few hashes, after one warm-up run, in nanoseconds.
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode("calibration-warmup");
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-probe");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(1, samples[samples.length / 2]);
+    }
+
+    private static String normalize(String algorithm) {
+        String id = algorithm == null ? BCRYPT : algorithm.trim().toLowerCase(Locale.ROOT);
+        if (!id.equals(BCRYPT) && !id.equals(ARGON2) && !id.equals(PBKDF2)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        return id;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * PBKDF2 encoder that stores its iteration count with the hash. Spring's own format does
+     * not, so changing the count would otherwise make every existing hash unverifiable.
+     */
+    private static final class IterationTaggedPbkdf2PasswordEncoder implements PasswordEncoder {
+
+        private final int iterations;
+        private final Map<Integer, Pbkdf2PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+        IterationTaggedPbkdf2PasswordEncoder(int iterations) {
+            this.iterations = iterations;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return iterations + "$" + encoder(iterations).encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            int stored = storedIterations(encodedPassword);
+            return stored > 0
+                    && encoder(stored).matches(rawPassword, encodedPassword.substring(encodedPassword.indexOf('$') + 1));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return storedIterations(encodedPassword) < iterations;
+        }
+
+        private Pbkdf2PasswordEncoder encoder(int iterationCount) {
+            return encoders.computeIfAbsent(iterationCount,
+                    count -> new Pbkdf2PasswordEncoder("", 16, count, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        }
+
+        private static int storedIterations(String encodedPassword) {
+            int separator = encodedPassword == null ? -1 : encodedPassword.indexOf('$');
+            if (separator <= 0) {
+                return -1;
+            }
+            try {
+                return Integer.parseInt(encodedPassword, 0, separator, 10);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The AuthFailureLogger class records rejected bearer tokens without doing I/O on the request
+ * thread.
+ *
+ * Purpose:
+ * Request threads only bump an in-memory counter per `AuthFailureReason` and remember one
+ * sample message. A scheduled task drains the counters and writes one structured summary line
+ * per reason, so a burst of identical failures costs one log line per interval.
+ *
+ * Why It Matters:
+ * Writing a line per bad token serializes request threads on the log appender exactly when
+ * traffic is worst, such as during credential stuffing or after a mass token expiry.
+ *
+ * Impact on the Application:
+ * - Summaries are logged every `spring.jwt.failure-log.interval` at WARN, only for reasons
+ * that occurred.
+ * - `jwt.auth.failures` counters, tagged by reason, are updated immediately for dashboards and
+ * alerts.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+public class AuthFailureLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthFailureLogger.class);
+
+    private static final AuthFailureReason[] REASONS = AuthFailureReason.values();
+
+    private final Map<AuthFailureReason, Counter> counters = new EnumMap<>(AuthFailureReason.class);
+    private final LongAdder[] pending = new LongAdder[REASONS.length];
+    private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(REASONS.length);
+
+    private volatile Instant windowStart = Instant.now();
+
+    /**
+     * Constructs the logger and registers a counter per reason.
+     *
+     * @param meterRegistry the registry the failure counters are published to.
+     */
+    @Autowired
+    public AuthFailureLogger(MeterRegistry meterRegistry) {
+        for (AuthFailureReason reason : REASONS) {
+            counters.put(reason, Counter.builder("jwt.auth.failures")
+                    .description("Rejected bearer tokens by reason")
+                    .tag("reason", reason.code())
+                    .register(meterRegistry));
+            pending[reason.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a token verification failure.
+     *
+     * @param ex the exception thrown while verifying the token.
+     */
+    public void record(Throwable ex) {
+        record(AuthFailureReason.of(ex), ex.getClass().getSimpleName() + ": " + ex.getMessage());
+    }
+
+    /**
+     * Records an authentication failure.
+     *
+     * @param reason the failure reason.
+     * @param detail a sample message kept for the next summary, may be null.
+     */
+    public void record(AuthFailureReason reason, String detail) {
+        counters.get(reason).increment();
+        pending[reason.ordinal()].increment();
+        if (detail != null) {
+            samples.lazySet(reason.ordinal(), detail);
+        }
+    }
+
+    /**
+     * Logs one summary line per reason seen since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${spring.jwt.failure-log.interval:PT10S}")
+    public void flush() {
+        Instant now = Instant.now();
+        long windowSeconds = Duration.between(windowStart, now).toSeconds();
+        windowStart = now;
+        drain().forEach((reason, count) -> log.warn(
+                "JWT authentication failures: reason={} count={} window={}s sample=\"{}\"",
+                reason.code(), count, windowSeconds, samples.getAndSet(reason.ordinal(), null)));
+    }
+
+    /**
+     * Resets the pending counts and returns those that were non-zero.
+     */
+    Map<AuthFailureReason, Long> drain() {
+        Map<AuthFailureReason, Long> counts = new EnumMap<>(AuthFailureReason.class);
+        for (AuthFailureReason reason : REASONS) {
+            long count = pending[reason.ordinal()].sumThenReset();
+            if (count > 0) {
+                counts.put(reason, count);
+            }
+        }
+        return counts;
+    }
+}
@@ -1,11 +1,17 @@
 package com.github.michaelodusami.fakeazon.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
 import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
 
 /**
  * The CustomUserDetailsService class implements the Spring Security `UserDetailsService` interface,
@@ -23,20 +29,29 @@ import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository
  * - Facilitates secure authentication by integrating the `UserRepository` with Spring Security.
  * - Bridges the `User` entity with Spring Security's `UserDetails` interface.
  * - Provides detailed error handling for invalid login attempts (e.g., user not found).
+ * - Stores re-hashed passwords when a login finds the existing hash below the current policy.
+ * - Caches loaded user details by email, so repeated logins do not query the database.
+ * - Rejects emails the `RegisteredEmailFilter` knows are not registered without a query.
  * 
  * @author Michael-Andre Odusami
  * @version 1.0.0
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
-    
-    
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     private UserRepository userRepository;
+    private UserCacheInvalidator userCacheInvalidator;
+    private RegisteredEmailFilter registeredEmailFilter;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository)
+    public CustomUserDetailsService(UserRepository userRepository, UserCacheInvalidator userCacheInvalidator,
+            RegisteredEmailFilter registeredEmailFilter)
     {
         this.userRepository = userRepository;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.registeredEmailFilter = registeredEmailFilter;
     }
 
      /**
@@ -50,13 +65,22 @@ public class CustomUserDetailsService implements UserDetailsService {
      * - Enables email-based authentication.
      * - Throws a clear exception when the user is not found, which can be used
      *   to provide feedback to the client or log invalid access attempts.
+     * - Found users are cached under the lower-cased email until they change or the entry expires.
+     *   Concurrent misses for the same email wait for a single load instead of each querying.
+     * - When `fakeazon.registered-emails.reject-unknown` is set, emails that were never registered
+     *   are rejected from memory, before any query.
      * 
      * @param email the email address of the user to load.
      * @return a `UserDetails` object containing the user's credentials and authorities.
      * @throws UsernameNotFoundException if no user is found with the specified email.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.USER_DETAILS, keyGenerator = CacheConfig.EMAIL_KEY_GENERATOR, sync = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        if (!registeredEmailFilter.mightBeRegistered(email))
+        {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }
         var user = userRepository.findByEmail(email);
         if (user.isEmpty())
         {
@@ -66,5 +90,37 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userDetails;
         
     }
-    
+
+    /**
+     * Replaces a user's password hash after a successful login with an outdated hash.
+     * 
+     * Purpose:
+     * Called by `DaoAuthenticationProvider` when `PasswordEncoder.upgradeEncoding` reports that
+     * the stored hash uses an older algorithm or a lower cost than the current policy.
+     * 
+     * Impact:
+     * - Hashing policy changes roll out gradually as users log in, without a migration.
+     * - A failed upgrade is logged and does not fail the login; it is retried next time.
+     * 
+     * @param user        the authenticated user.
+     * @param newPassword the password re-hashed with the current policy.
+     * @return the user details carrying the new hash.
+     */
+    @Override
+    public org.springframework.security.core.userdetails.UserDetails updatePassword(
+            org.springframework.security.core.userdetails.UserDetails user, String newPassword) {
+        try {
+            var entity = userRepository.findByEmail(user.getUsername());
+            if (entity.isEmpty()) {
+                return user;
+            }
+            entity.get().setPassword(newPassword);
+            UserDetails updated = new UserDetails(userRepository.save(entity.get()));
+            userCacheInvalidator.evict(entity.get());
+            return updated;
+        } catch (RuntimeException ex) {
+            log.warn("Could not upgrade password hash for {}: {}", user.getUsername(), ex.getMessage());
+            return user;
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.security.Jwks;
+
+/**
+ * The JwksService class publishes the public half of the JWT key ring as a JSON Web Key Set.
+ *
+ * Purpose:
+ * Lets other services verify our tokens locally by fetching the active public keys, instead of
+ * calling back into this application for every request.
+ *
+ * Why It Matters:
+ * Key discovery traffic scales with the number of verifiers, not with our request volume. The
+ * document is serialized once per key ring change and served as the same bytes with a strong
+ * ETag, so HTTP caches and conditional requests can absorb nearly all of it.
+ *
+ * Impact on the Application:
+ * - Only asymmetric keys are published; with HS256 the set is empty since the secret must never leave.
+ * - Rebuilt lazily the first time it is requested after a rotation or retirement.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class JwksService {
+
+    private final JwtKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+
+    private volatile JwksDocument document;
+
+    /**
+     * A pre-serialized JWK Set and its entity tag.
+     *
+     * @param json    the serialized JWK Set.
+     * @param etag    the strong entity tag for {@code json}, including quotes.
+     * @param version the key ring version the document was built from.
+     */
+    public record JwksDocument(byte[] json, String etag, long version) {
+    }
+
+    /**
+     * Constructs the JwksService.
+     *
+     * @param keyRing      the key ring whose public keys are published.
+     * @param objectMapper the mapper used to serialize the key set.
+     */
+    @Autowired
+    public JwksService(JwtKeyRing keyRing, ObjectMapper objectMapper) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the JWK Set for the currently active keys, rebuilding it only if the key ring changed.
+     *
+     * @return the current document.
+     */
+    public JwksDocument current() {
+        JwksDocument cached = document;
+        long version = keyRing.version();
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        synchronized (this) {
+            if (document == null || document.version() != version) {
+                document = build(version);
+            }
+            return document;
+        }
+    }
+
+    private JwksDocument build(long version) {
+        List<Map<String, ?>> keys = new ArrayList<>();
+        for (JwtSigningKey key : keyRing.activeKeys()) {
+            if (key.isAsymmetric()) {
+                keys.add(Jwks.builder()
+                        .key((PublicKey) key.verificationKey())
+                        .id(key.kid())
+                        .algorithm(key.algorithm().getId())
+                        .publicKeyUse("sig")
+                        .build());
+            }
+        }
+        Map<String, Object> set = new LinkedHashMap<>();
+        set.put("keys", keys);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(set);
+            return new JwksDocument(json, etag(json), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize JWK Set", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
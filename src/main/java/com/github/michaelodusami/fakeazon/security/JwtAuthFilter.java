@@ -2,15 +2,15 @@ package com.github.michaelodusami.fakeazon.security;
 
 import java.io.IOException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -39,6 +39,9 @@ import jakarta.servlet.http.HttpServletResponse;
  * access control.
  * - Rejects requests with invalid or missing tokens without invoking the
  * controller logic.
+ * - Rejects revoked tokens, including ones already in the verified-token cache.
+ * - Exposes the accepted token as the `VERIFIED_TOKEN_ATTRIBUTE` request attribute, so
+ * controllers need not parse it again.
  * 
  * @author Michael-Andre Odusami
  * @version 1.0.0
@@ -46,13 +49,30 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private UserRepository userRepository;
+    /**
+     * Request attribute holding the `VerifiedToken` of an authenticated request.
+     */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE =
+            "com.github.michaelodusami.fakeazon.security.JwtAuthFilter.verifiedToken";
+
+    private CustomUserDetailsService userDetailsService;
     private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenRevocationService tokenRevocationService;
+    private AuthFailureLogger authFailureLogger;
+
+    @Value("${spring.jwt.claims-principal:false}")
+    private boolean claimsPrincipal; // Build the principal from token claims instead of the database.
 
     @Autowired
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService,
+            VerifiedTokenCache verifiedTokenCache, TokenRevocationService tokenRevocationService,
+            AuthFailureLogger authFailureLogger) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authFailureLogger = authFailureLogger;
     }
 
     /**
@@ -78,41 +98,89 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        final String token = BearerTokenExtractor.extract(request.getHeader(HttpHeaders.AUTHORIZATION));
 
-        if (header == null || !header.startsWith("Bearer ")) {
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            String token = header.split(" ")[1].trim();
-            String username = jwtService.extractUsername(token);
-            var userOptional = userRepository.findByEmail(username);
-
-            if (userOptional.isPresent()) {
-
-                var user = userOptional.get();
-                var userDetails = new UserDetails(user);
+            UserDetails userDetails;
+            VerifiedToken verifiedToken;
+            var cached = verifiedTokenCache.get(token);
+
+            if (cached != null) {
+                // Token was already verified and resolved by an earlier request, but may have been revoked since
+                verifiedToken = cached.token();
+                userDetails = isRevoked(verifiedToken.tokenId()) ? null : cached.principal();
+            } else {
+                // Parses and verifies the signature and expiry once for the whole request
+                verifiedToken = jwtService.verify(token);
+                userDetails = isRevoked(verifiedToken.tokenId()) ? null : resolvePrincipal(verifiedToken);
+                if (userDetails != null) {
+                    verifiedTokenCache.put(token, verifiedToken, userDetails);
+                }
+            }
 
-                if (jwtService.validateToken(token, userDetails)) {
+            if (userDetails != null) {
 
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities() // Use authorities from UserDetails
-                    );
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities() // Use authorities from UserDetails
+                );
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
             }
         } catch (RuntimeException ex) {
 
-            // Log the exception and skip setting the SecurityContext
-            System.err.println("JWT validation failed: " + ex.getMessage());
+            // Record the failure without blocking on log I/O and skip setting the SecurityContext
+            authFailureLogger.record(ex);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolves the principal for a verified token.
+     * 
+     * Purpose:
+     * When `spring.jwt.claims-principal` is enabled and the token carries the user id and
+     * roles, the principal is built from the claims alone. Otherwise (or for tokens issued
+     * before those claims existed) the user is loaded through the cached
+     * `CustomUserDetailsService`.
+     * 
+     * Impact:
+     * In claims mode authenticated requests never touch the database, at the cost of role
+     * changes and deletions only being seen once the token expires. Otherwise concurrent
+     * requests for the same user share one cached load.
+     * 
+     * @param verifiedToken the token verified for this request.
+     * @return the principal, or null if the user no longer exists.
+     */
+    private UserDetails resolvePrincipal(VerifiedToken verifiedToken) {
+        if (claimsPrincipal && verifiedToken.hasPrincipalClaims()) {
+            return new UserDetails(verifiedToken);
+        }
+        try {
+            return userDetailsService.loadUserByUsername(verifiedToken.subject());
+        } catch (UsernameNotFoundException ex) {
+            authFailureLogger.record(AuthFailureReason.UNKNOWN_USER, null);
+            return null;
+        }
+    }
+
+    /**
+     * Checks a token id against the revocation list. Tokens issued without a `jti` cannot be
+     * revoked individually.
+     */
+    private boolean isRevoked(String tokenId) {
+        if (tokenId != null && tokenRevocationService.isRevoked(tokenId)) {
+            authFailureLogger.record(AuthFailureReason.REVOKED, null);
+            return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,56 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.util.List;
+
+/**
+ * The JwtKeyRing interface supplies the keys used to sign and verify JWTs.
+ *
+ * Purpose:
+ * Separates key management from `JwtService` so that keys can be rotated, and so the
+ * storage of key material can be swapped (in-memory, shared store, KMS) without touching
+ * token issuance or verification.
+ *
+ * Impact on the Application:
+ * - New tokens are always signed with `current()` and carry its `kid`.
+ * - Tokens signed by a previous key keep verifying until that key is retired.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public interface JwtKeyRing {
+
+    /**
+     * Returns the key new tokens are signed with.
+     *
+     * @return the current signing key.
+     */
+    JwtSigningKey current();
+
+    /**
+     * Finds an active verification key by id.
+     *
+     * @param kid the key id from the token header.
+     * @return the key, or null if it is unknown or has been retired.
+     */
+    JwtSigningKey find(String kid);
+
+    /**
+     * Returns every key that tokens may currently be verified with, newest first.
+     *
+     * @return the active keys.
+     */
+    List<JwtSigningKey> activeKeys();
+
+    /**
+     * Returns a number that changes whenever the set of active keys changes, so callers can
+     * cache anything derived from the keys and rebuild it only when needed.
+     *
+     * @return the current key set version.
+     */
+    long version();
+
+    /**
+     * Creates a new signing key. The previous key stays active for verification until retired.
+     */
+    void rotate();
+}
@@ -1,21 +1,29 @@
 package com.github.michaelodusami.fakeazon.security;
 
 import java.security.Key;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.Getter;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 
 /**
  * The JwtService class handles JSON Web Token (JWT) operations, such as token generation, validation,
@@ -33,19 +41,44 @@ import lombok.Getter;
  * - Enables stateless authentication by issuing tokens with encoded user information.
  * - Validates tokens for secure access to protected resources.
  * - Extracts user-specific information from tokens for authorization and session management.
+ * - Signs with the `JwtKeyRing`'s current key and verifies by the token's `kid`, so keys can rotate.
  * 
  * @author Michael-Andre Odusami
  * @version 1.0.0
  */
-@Getter
 @Service
 public class JwtService {
 
-    @Value("${spring.jwt.secret}")
-    private String secret; //t = "851e2cb4ac7657b6cff30a0ae25080e70c1a27d4c452050bcd55cf55ed8af4c0795a717a03ff5c290ebb1073c45e8f9b22aa65796f17d06c6df2e30cb01f27c56b760cd5432f758cd7df86fc8e9f6d9c678a33c2b2022dca999b349ac76f2fcf65fd0ca2f1a16920aef6df175aa215035ffc6221d769ee92a6518470773f4d208a33f75adb32ce9acfb621615684d85fd78ddc906a8d98c891bd13843edf776f079d301d216427dc6593ee978f6d313d4dfb0e82f842cdd526f06ad495d160f009fea20210b35f7bb6a143de9bf3e356d52194f04b07cc33c7e3e10da4692a6488bd3b2f7100335f7919eda948aa82945b21c64fd4df2f50c02e8021d21c35e9"; // Secret key for signing the JWT.
-
     private static final long EXPIRATION_TIME = 100 * 60 * 30; // Token validity period (30 minutes).
 
+    static final String ROLES_CLAIM = "roles"; // Claim holding the user's role names.
+
+    static final String USER_ID_CLAIM = "uid"; // Claim holding the user's database id.
+
+    private final JwtKeyRing keyRing;
+
+    private final JwtParser jwtParser; // Immutable and thread-safe, shared across requests.
+
+    /**
+     * Constructs the JwtService and builds its token parser once.
+     * 
+     * Purpose:
+     * The parser resolves the verification key from each token's `kid` header through the
+     * key ring, so it never needs rebuilding when keys rotate.
+     * 
+     * Impact:
+     * Token generation and validation reuse the same parser instance and key material.
+     * 
+     * @param keyRing the key ring supplying signing and verification keys.
+     */
+    @Autowired
+    public JwtService(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator(keyRing))
+                .build();
+    }
+
     /**
      * Generates a JWT for the given email.
      * 
@@ -64,42 +97,64 @@ public class JwtService {
     }
 
     /**
-     * Creates a JWT with the provided claims and subject (email).
+     * Generates a JWT for the given user, embedding their id and roles as claims.
      * 
      * Purpose:
-     * Builds the token by embedding claims, setting expiration time, and signing it.
+     * Lets `JwtAuthFilter` build the authenticated principal straight from the token
+     * instead of loading the user from the database on every request.
      * 
      * Impact:
-     * Encodes user-specific information and ensures the token's integrity using a signature.
+     * Role changes only take effect for newly issued tokens.
      * 
-     * @param claims a map of claims to embed in the token.
-     * @param email the email to set as the subject of the token.
-     * @return the generated token as a string.
+     * @param user the user the token is issued for.
+     * @return the generated JWT as a string.
      */
-    private String createToken(Map<String, Object> claims, String email) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME)) // Token valid for 30 minutes
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
-                .compact();
+    public String generateToken(User user) {
+        return generateToken(new com.github.michaelodusami.fakeazon.security.UserDetails(user));
     }
 
     /**
-     * Retrieves the signing key for token generation and validation.
+     * Generates a JWT for an authenticated principal, embedding its id and roles as claims.
      * 
      * Purpose:
-     * Decodes the secret and returns a cryptographic key for signing the token.
+     * Lets the login endpoint issue a token straight from the principal produced by the
+     * authentication manager, without loading the user a second time.
+     * 
+     * @param principal the authenticated principal.
+     * @return the generated JWT as a string.
+     */
+    public String generateToken(com.github.michaelodusami.fakeazon.security.UserDetails principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, principal.getId());
+        claims.put(ROLES_CLAIM, principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        return createToken(claims, principal.getUsername());
+    }
+
+    /**
+     * Creates a JWT with the provided claims and subject (email).
+     * 
+     * Purpose:
+     * Builds the token by embedding claims, setting expiration time, and signing it.
+     * Every token gets a random `jti` so it can be revoked individually.
      * 
      * Impact:
-     * Ensures secure token signing and validation using the HS256 algorithm.
+     * Encodes user-specific information and ensures the token's integrity using a signature.
      * 
-     * @return the signing key.
+     * @param claims a map of claims to embed in the token.
+     * @param email the email to set as the subject of the token.
+     * @return the generated token as a string.
      */
-    protected Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private String createToken(Map<String, Object> claims, String email) {
+        JwtSigningKey signingKey = keyRing.current();
+        return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(email)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME)) // Token valid for 30 minutes
+                .signWith(signingKey.signingKey(), signingKey.algorithm())
+                .compact();
     }
 
     /**
@@ -157,7 +212,7 @@ public class JwtService {
      * Extracts all claims from a token.
      * 
      * Purpose:
-     * Parses the token to retrieve all embedded claims.
+     * Parses the token with the shared parser to retrieve all embedded claims.
      * 
      * Impact:
      * Allows extraction of any claim for validation or other operations.
@@ -166,11 +221,34 @@ public class JwtService {
      * @return the claims contained in the token.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * Parses and verifies a token exactly once.
+     * 
+     * Purpose:
+     * Checks the signature and expiry and captures every claim needed downstream in a
+     * single immutable object, instead of re-parsing the token for each claim.
+     * 
+     * Impact:
+     * Callers such as `JwtAuthFilter` pay for one signature verification per request.
+     * 
+     * @param token the JWT.
+     * @return the verified token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or has an invalid signature.
+     */
+    public VerifiedToken verify(String token) {
+        final Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                extractUserId(claims),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                extractRoles(claims),
+                claims.getId());
     }
 
     /**
@@ -187,23 +265,47 @@ public class JwtService {
      * @return true if the token is valid, otherwise false.
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractUsername(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return (verified.subject().equals(userDetails.getUsername()) && !verified.isExpired(Instant.now()));
+    }
+
+    private static Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (roles instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        }
+        return Set.of();
+    }
+
+    private static Long extractUserId(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 
     /**
-     * Checks if a token is expired.
-     * 
-     * Purpose:
-     * Determines whether the token is still valid based on its expiration date.
-     * 
-     * Impact:
-     * Prevents the use of expired tokens in authentication and authorization.
-     * 
-     * @param token the JWT.
-     * @return true if the token is expired, otherwise false.
+     * Resolves the verification key for a token from its `kid` header. Tokens issued before
+     * key ids were introduced carry no `kid` and are checked against the current key.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static final class KeyRingLocator extends LocatorAdapter<Key> {
+
+        private final JwtKeyRing keyRing;
+
+        KeyRingLocator(JwtKeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            JwtSigningKey key = kid == null ? keyRing.current() : keyRing.find(kid);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown or retired signing key: " + kid);
+            }
+            return key.verificationKey();
+        }
     }
 }
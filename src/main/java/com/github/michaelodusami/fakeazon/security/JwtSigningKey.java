@@ -0,0 +1,41 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
+
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+/**
+ * The JwtSigningKey record is one entry of a `JwtKeyRing`: a key id, the algorithm it is used
+ * with, and the key material needed to sign and verify tokens.
+ *
+ * Purpose:
+ * Ties the `kid` written into each token header to the key that can verify it, so several keys
+ * can be valid at once while they are being rotated.
+ *
+ * Impact on the Application:
+ * - For HMAC algorithms the signing and verification keys are the same secret.
+ * - For asymmetric algorithms only the public verification key ever leaves the service.
+ *
+ * @param kid             the key id written to the `kid` header.
+ * @param algorithm       the JWS algorithm the key is used with.
+ * @param signingKey      the secret or private key used to sign.
+ * @param verificationKey the secret or public key used to verify.
+ * @param createdAt       when the key was created.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public record JwtSigningKey(String kid, SecureDigestAlgorithm<Key, Key> algorithm, Key signingKey,
+        Key verificationKey, Instant createdAt) {
+
+    /**
+     * Indicates whether the verification key can be published to other services.
+     *
+     * @return true if the verification key is a public key.
+     */
+    public boolean isAsymmetric() {
+        return verificationKey instanceof PublicKey;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when password hashing is saturated and a request cannot be served in time.
+ *
+ * Purpose:
+ * Lets the web layer answer 503 Service Unavailable with a `Retry-After` hint instead of
+ * tying up a request thread until the hashing backlog clears.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message    the detail message.
+     * @param retryAfter how long clients should wait before retrying.
+     */
+    public PasswordHashingUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long clients should wait before retrying.
+     *
+     * @return the retry delay.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
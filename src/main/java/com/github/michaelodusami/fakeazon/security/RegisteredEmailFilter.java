@@ -0,0 +1,204 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The RegisteredEmailFilter class answers "definitely not a user" for login emails without a
+ * database query.
+ *
+ * Purpose:
+ * Every registered email, lower-cased, is mirrored into an in-memory Bloom filter.
+ * `CustomUserDetailsService` asks the filter before looking a user up, so logins for emails
+ * that were never registered are rejected after a few bit probes.
+ *
+ * Why It Matters:
+ * Credential-stuffing traffic is mostly emails that do not exist here, and each one used to be
+ * a full `findByEmail` query. A Bloom filter has no false negatives for the emails it has seen;
+ * the false positive rate (`fakeazon.registered-emails.false-positive-rate`) bounds how many
+ * unknown emails still reach the database.
+ *
+ * Impact on the Application:
+ * - Emails registered or changed on this instance are added immediately.
+ * - Emails registered on other instances are only seen after the next rebuild (every
+ * `fakeazon.registered-emails.rebuild-interval`, which also drops deleted users), or within
+ * milliseconds through `UserCacheInvalidationListener` when the invalidation feed is enabled.
+ * - Negatives are therefore only trusted when `fakeazon.registered-emails.reject-unknown` is set,
+ * which defaults to `fakeazon.user-cache.invalidation.enabled`. Otherwise a user registered
+ * on another instance could be turned away until the next rebuild, so negatives are only
+ * counted and the login falls through to the database.
+ * - The filter is first built once the application is ready, so a database that is briefly
+ * unavailable does not stop the application from starting. Until a build succeeds every email
+ * may be registered (outcome `unfiltered`) and logins are checked against the database.
+ * - Publishes `auth.registered-email.checks` counters tagged by outcome.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class RegisteredEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final boolean rejectUnknown;
+
+    private final Counter bloomNegatives;
+    private final Counter bloomNegativesChecked;
+    private final Counter bloomPositives;
+    private final Counter unfiltered;
+
+    private volatile BloomFilter filter;
+    private volatile boolean built; // Whether the filter holds every email in the users table.
+
+    private BloomFilter pending; // Filter being rebuilt; guarded by this.
+
+    /**
+     * Constructs the RegisteredEmailFilter.
+     *
+     * @param userRepository      the store of registered users.
+     * @param transactionTemplate the template used to stream emails while rebuilding.
+     * @param expectedEntries     the minimum number of emails the filter is sized for.
+     * @param falsePositiveRate   the target Bloom filter false positive rate.
+     * @param rejectUnknown       whether emails the filter has not seen are reported as unknown;
+     *                            only safe when every instance learns new emails at once.
+     * @param meterRegistry       the registry the check counters are published to.
+     */
+    @Autowired
+    public RegisteredEmailFilter(UserRepository userRepository, TransactionTemplate transactionTemplate,
+            @Value("${fakeazon.registered-emails.expected-entries:100000}") long expectedEntries,
+            @Value("${fakeazon.registered-emails.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${fakeazon.registered-emails.reject-unknown:${fakeazon.user-cache.invalidation.enabled:false}}") boolean rejectUnknown,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rejectUnknown = rejectUnknown;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.bloomNegatives = checks(meterRegistry, "bloom-negative");
+        this.bloomNegativesChecked = checks(meterRegistry, "bloom-negative-checked");
+        this.bloomPositives = checks(meterRegistry, "bloom-positive");
+        this.unfiltered = checks(meterRegistry, "unfiltered");
+    }
+
+    /**
+     * Records a newly registered or changed email.
+     *
+     * @param email the email now belonging to a user.
+     */
+    public void add(String email) {
+        String key = key(email);
+        synchronized (this) {
+            filter.put(key);
+            if (pending != null) {
+                pending.put(key);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an email may belong to a user.
+     *
+     * @param email the email to check, in any case.
+     * @return false if no user has this email; true if one may have it, or if negatives are not
+     *         trusted.
+     */
+    public boolean mightBeRegistered(String email) {
+        if (!built) {
+            unfiltered.increment();
+            return true;
+        }
+        if (!filter.mightContain(key(email))) {
+            if (!rejectUnknown) {
+                // May have been registered on another instance since the last rebuild
+                bloomNegativesChecked.increment();
+                return true;
+            }
+            bloomNegatives.increment();
+            return false;
+        }
+        bloomPositives.increment();
+        return true;
+    }
+
+    /**
+     * Builds the filter for the first time once the application has started.
+     *
+     * Impact:
+     * A failure is logged rather than thrown; every email passes the check until the next
+     * scheduled rebuild succeeds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the registered email filter, checking the database until the next rebuild: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the Bloom filter from the users table.
+     *
+     * Impact:
+     * Picks up emails registered on other instances, forgets deleted users and resizes the
+     * filter as the number of users grows.
+     */
+    @Scheduled(initialDelayString = "${fakeazon.registered-emails.rebuild-interval:PT5M}",
+            fixedDelayString = "${fakeazon.registered-emails.rebuild-interval:PT5M}")
+    public void rebuild() {
+        long users = userRepository.count();
+
+        BloomFilter next = new BloomFilter(Math.max(expectedEntries, users * 2), falsePositiveRate);
+        synchronized (this) {
+            pending = next;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamEmails()) {
+                    emails.forEach(email -> next.put(key(email)));
+                }
+            });
+            synchronized (this) {
+                filter = next;
+                built = true;
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+        log.debug("Rebuilt registered email filter: users={} bits={}", users, next.bitSize());
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.registered-email.checks")
+                .description("Login email pre-checks by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+/**
+ * The RotatingJwtKeyRing class is the default in-memory `JwtKeyRing`.
+ *
+ * Purpose:
+ * Holds the current signing key plus recently superseded keys, rotates on a schedule and
+ * retires old keys once every token they could have signed has expired.
+ *
+ * Why It Matters:
+ * With HS256 every verifier needs the shared secret and changing it invalidates every session.
+ * With RS256, ES256 or EdDSA only public keys are shared, and rotation keeps old tokens valid
+ * for `spring.jwt.rotation.retention` after their key was replaced.
+ *
+ * Impact on the Application:
+ * - `spring.jwt.algorithm` selects HS256 (default), RS256, ES256 or EdDSA (Ed25519).
+ * - For HS256 the initial key is `spring.jwt.secret`, so existing deployments keep working.
+ * - `spring.jwt.rotation.interval` enables scheduled rotation (PT0S disables it). Generated keys
+ *   live only in this instance's memory; multi-instance deployments should either keep rotation
+ *   off or provide a `JwtKeyRing` backed by shared storage.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+public class RotatingJwtKeyRing implements JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(RotatingJwtKeyRing.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final String algorithm;
+    private final Duration rotationInterval;
+    private final Duration retention;
+    private final Clock clock;
+
+    private volatile List<JwtSigningKey> keys; // Newest first, replaced wholesale on change.
+
+    private volatile long version;
+
+    /**
+     * Constructs the key ring from configuration.
+     *
+     * @param algorithm        the JWS algorithm: HS256, RS256, ES256 or EdDSA.
+     * @param secret           the Base64 HMAC secret used as the initial HS256 key.
+     * @param rotationInterval how often to rotate the signing key; zero disables rotation.
+     * @param retention        how long a superseded key keeps verifying tokens.
+     */
+    @Autowired
+    public RotatingJwtKeyRing(@Value("${spring.jwt.algorithm:HS256}") String algorithm,
+            @Value("${spring.jwt.secret:}") String secret,
+            @Value("${spring.jwt.rotation.interval:PT0S}") Duration rotationInterval,
+            @Value("${spring.jwt.rotation.retention:PT1H}") Duration retention) {
+        this(algorithm, secret, rotationInterval, retention, Clock.systemUTC());
+    }
+
+    RotatingJwtKeyRing(String algorithm, String secret, Duration rotationInterval, Duration retention, Clock clock) {
+        this.algorithm = algorithm;
+        this.rotationInterval = rotationInterval;
+        this.retention = retention;
+        this.clock = clock;
+        this.keys = List.of(isHmac() && secret != null && !secret.isBlank()
+                ? fromSecret(secret)
+                : generate());
+    }
+
+    @Override
+    public JwtSigningKey current() {
+        return keys.get(0);
+    }
+
+    @Override
+    public JwtSigningKey find(String kid) {
+        for (JwtSigningKey key : keys) {
+            if (key.kid().equals(kid)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<JwtSigningKey> activeKeys() {
+        return keys;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public synchronized void rotate() {
+        JwtSigningKey next = generate();
+        List<JwtSigningKey> rotated = new ArrayList<>(keys.size() + 1);
+        rotated.add(next);
+        rotated.addAll(keys);
+        keys = List.copyOf(rotated);
+        version++;
+        log.info("Rotated JWT signing key: algorithm={} kid={} activeKeys={}", algorithm, next.kid(), rotated.size());
+    }
+
+    /**
+     * Rotates the signing key when it is older than the rotation interval and retires keys whose
+     * retention period has passed.
+     */
+    @Scheduled(fixedDelayString = "${spring.jwt.rotation.check-interval:PT1M}")
+    public void rotateIfDue() {
+        Instant now = clock.instant();
+        if (!rotationInterval.isZero() && !current().createdAt().plus(rotationInterval).isAfter(now)) {
+            rotate();
+        }
+        retireExpired(now);
+    }
+
+    synchronized void retireExpired(Instant now) {
+        List<JwtSigningKey> current = keys;
+        List<JwtSigningKey> retained = new ArrayList<>(current.size());
+        retained.add(current.get(0));
+        for (int i = 1; i < current.size(); i++) {
+            // A key stopped signing when its successor was created
+            Instant supersededAt = current.get(i - 1).createdAt();
+            if (supersededAt.plus(retention).isAfter(now)) {
+                retained.add(current.get(i));
+            }
+        }
+        if (retained.size() != current.size()) {
+            keys = List.copyOf(retained);
+            version++;
+        }
+    }
+
+    private boolean isHmac() {
+        return algorithm.toUpperCase().startsWith("HS");
+    }
+
+    private JwtSigningKey fromSecret(String secret) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return new JwtSigningKey(secretKid(secret), resolveAlgorithm(), key, key, clock.instant());
+    }
+
+    private JwtSigningKey generate() {
+        String kid = randomKid();
+        switch (algorithm.toUpperCase()) {
+            case "HS256": {
+                SecretKey key = Jwts.SIG.HS256.key().build();
+                return new JwtSigningKey(kid, resolveAlgorithm(), key, key, clock.instant());
+            }
+            case "RS256":
+                return fromKeyPair(kid, Jwts.SIG.RS256.keyPair().build());
+            case "ES256":
+                return fromKeyPair(kid, Jwts.SIG.ES256.keyPair().build());
+            case "EDDSA":
+                return fromKeyPair(kid, Jwks.CRV.Ed25519.keyPair().build());
+            default:
+                throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm);
+        }
+    }
+
+    private JwtSigningKey fromKeyPair(String kid, KeyPair keyPair) {
+        return new JwtSigningKey(kid, resolveAlgorithm(), keyPair.getPrivate(), keyPair.getPublic(), clock.instant());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SecureDigestAlgorithm<Key, Key> resolveAlgorithm() {
+        SecureDigestAlgorithm<?, ?> resolved = switch (algorithm.toUpperCase()) {
+            case "HS256" -> Jwts.SIG.HS256;
+            case "RS256" -> Jwts.SIG.RS256;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm);
+        };
+        return (SecureDigestAlgorithm<Key, Key>) resolved;
+    }
+
+    /**
+     * Derives a stable key id from the configured secret so every instance sharing the secret
+     * agrees on it, without revealing the secret itself.
+     */
+    private static String secretKid(String secret) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String randomKid() {
+        byte[] bytes = new byte[12];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,235 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserCacheInvalidation;
+import com.github.michaelodusami.fakeazon.modules.user.repository.RevokedTokenRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidationPublisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The TokenRevocationService class lets access tokens be revoked before they expire without
+ * giving up stateless authentication.
+ *
+ * Purpose:
+ * Revoked token ids (`jti`) are stored in the `revoked_tokens` table and mirrored into an
+ * in-memory Bloom filter. `JwtAuthFilter` asks the filter first; only Bloom positives are
+ * confirmed against the database.
+ *
+ * Why It Matters:
+ * Almost every request carries a token that was never revoked, and for those the check is a
+ * few bit probes with no I/O. The false positive rate (`spring.jwt.revocation.false-positive-rate`)
+ * bounds how often a request pays for a primary key lookup.
+ *
+ * Impact on the Application:
+ * - Revocations made on this instance take effect immediately.
+ * - Revocations made on other instances reach this filter within milliseconds through
+ * `UserCacheInvalidationListener` when the invalidation feed is enabled, and otherwise only when
+ * the filter is rebuilt every `spring.jwt.revocation.rebuild-interval` (which also drops entries
+ * whose tokens have expired).
+ * - Negatives are therefore only trusted when `spring.jwt.revocation.trust-negatives` is set,
+ * which defaults to `fakeazon.user-cache.invalidation.enabled`. Otherwise a token revoked on
+ * another instance could be accepted here until the next rebuild, so negatives are confirmed
+ * against the database too (outcome `bloom-negative-checked`).
+ * - The filter is first built once the application is ready, so a database that is briefly
+ * unavailable does not stop the application from starting. Until a build succeeds, every check
+ * goes to the database (outcome `unfiltered`).
+ * - Publishes `jwt.revocation.checks` counters tagged by outcome, to tune the filter size.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final boolean trustNegatives;
+    private final ObjectProvider<UserCacheInvalidationPublisher> publisher;
+
+    private final Counter bloomNegatives;
+    private final Counter bloomNegativesChecked;
+    private final Counter falsePositives;
+    private final Counter confirmed;
+    private final Counter unfiltered;
+
+    private volatile BloomFilter filter;
+    private volatile boolean built; // Whether the filter holds every revocation in the store.
+
+    private BloomFilter pending; // Filter being rebuilt; guarded by this.
+
+    /**
+     * Constructs the TokenRevocationService.
+     *
+     * @param revokedTokenRepository the store of revoked token ids.
+     * @param transactionTemplate    the template used to stream token ids while rebuilding.
+     * @param expectedEntries        the minimum number of revocations the filter is sized for.
+     * @param falsePositiveRate      the target Bloom filter false positive rate.
+     * @param trustNegatives         whether tokens the filter has not seen are accepted without a
+     *                               query; only safe when every instance learns revocations at once.
+     * @param publisher              the publisher of revocations to other instances, when enabled.
+     * @param meterRegistry          the registry the check counters are published to.
+     */
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${spring.jwt.revocation.expected-entries:10000}") long expectedEntries,
+            @Value("${spring.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${spring.jwt.revocation.trust-negatives:${fakeazon.user-cache.invalidation.enabled:false}}") boolean trustNegatives,
+            ObjectProvider<UserCacheInvalidationPublisher> publisher,
+            MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.trustNegatives = trustNegatives;
+        this.publisher = publisher;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.bloomNegatives = checks(meterRegistry, "bloom-negative");
+        this.bloomNegativesChecked = checks(meterRegistry, "bloom-negative-checked");
+        this.falsePositives = checks(meterRegistry, "false-positive");
+        this.confirmed = checks(meterRegistry, "revoked");
+        this.unfiltered = checks(meterRegistry, "unfiltered");
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * Impact:
+     * When the invalidation feed is enabled, the token id is also published so every other
+     * instance adds it to its filter.
+     *
+     * @param tokenId   the token's `jti` claim.
+     * @param expiresAt the token's expiry, after which the revocation can be forgotten.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        transactionTemplate.execute(status -> revokedTokenRepository.insertIfAbsent(tokenId, expiresAt, Instant.now()));
+        add(tokenId);
+        publisher.ifAvailable(p -> p.publish(new UserCacheInvalidation(List.of(), List.of(), List.of(tokenId))));
+    }
+
+    /**
+     * Records a token revoked on another instance.
+     *
+     * @param tokenId the revoked token's `jti` claim, already stored by the instance that revoked it.
+     */
+    public void add(String tokenId) {
+        synchronized (this) {
+            filter.put(tokenId);
+            if (pending != null) {
+                pending.put(tokenId);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param tokenId the token's `jti` claim.
+     * @return true if the token was revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!built) {
+            unfiltered.increment();
+            return revokedTokenRepository.existsById(tokenId);
+        }
+        if (!filter.mightContain(tokenId)) {
+            if (trustNegatives) {
+                bloomNegatives.increment();
+                return false;
+            }
+            // May have been revoked on another instance since the last rebuild
+            if (revokedTokenRepository.existsById(tokenId)) {
+                confirmed.increment();
+                return true;
+            }
+            bloomNegativesChecked.increment();
+            return false;
+        }
+        if (revokedTokenRepository.existsById(tokenId)) {
+            confirmed.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Builds the filter for the first time once the application has started.
+     *
+     * Impact:
+     * A failure is logged rather than thrown; checks keep going to the database until the next
+     * scheduled rebuild succeeds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the token revocation filter, checking the database until the next rebuild: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Purges expired revocations and rebuilds the Bloom filter from the remaining ones.
+     *
+     * Impact:
+     * Keeps the false positive rate near its target as revocations accumulate and expire, and
+     * picks up revocations written by other instances.
+     */
+    @Scheduled(initialDelayString = "${spring.jwt.revocation.rebuild-interval:PT5M}",
+            fixedDelayString = "${spring.jwt.revocation.rebuild-interval:PT5M}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        int purged = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now));
+        long active = revokedTokenRepository.count();
+
+        BloomFilter next = new BloomFilter(Math.max(expectedEntries, active * 2), falsePositiveRate);
+        synchronized (this) {
+            pending = next;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> tokenIds = revokedTokenRepository.streamActiveTokenIds(now)) {
+                    tokenIds.forEach(next::put);
+                }
+            });
+            synchronized (this) {
+                filter = next;
+                built = true;
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+        log.debug("Rebuilt token revocation filter: active={} purged={} bits={}", active, purged, next.bitSize());
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.revocation.checks")
+                .description("Token revocation checks by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
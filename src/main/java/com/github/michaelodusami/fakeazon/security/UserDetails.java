@@ -30,6 +30,10 @@ import com.github.michaelodusami.fakeazon.modules.user.entity.User;
  */
 public class UserDetails implements org.springframework.security.core.userdetails.UserDetails {
 
+    private Long id;
+
+    private String name;
+
     private String email;
 
     private String password;
@@ -50,9 +54,54 @@ public class UserDetails implements org.springframework.security.core.userdetail
      */
     public UserDetails(User user)
     {
+        this.id = user.getId();
+        this.name = user.getName();
         this.email = user.getEmail();
         this.password = user.getPassword();
-        this.authorities = user.getRoles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet());
+        this.authorities = user.getRoles().stream().map(role -> new SimpleGrantedAuthority(role.getRole()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Constructs a UserDetails instance from the claims of a verified token.
+     * 
+     * Purpose:
+     * Builds the authenticated principal without a database lookup, using the user id
+     * and roles that were embedded in the token when it was issued.
+     * 
+     * Impact:
+     * The principal carries no password or name since it is only used for already-authenticated requests.
+     * 
+     * @param token the verified token to adapt.
+     */
+    public UserDetails(VerifiedToken token)
+    {
+        this.id = token.userId();
+        this.email = token.subject();
+        this.password = null;
+        this.authorities = token.roles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet());
+    }
+
+    /**
+     * Retrieves the database id of the user.
+     * 
+     * @return the user's id.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the display name of the user.
+     * 
+     * Purpose:
+     * Lets the login response be built from the authenticated principal without loading
+     * the user again.
+     * 
+     * @return the user's name, or null for principals built from token claims.
+     */
+    public String getName() {
+        return name;
     }
 
     /**
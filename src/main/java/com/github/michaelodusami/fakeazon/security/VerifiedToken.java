@@ -0,0 +1,53 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The VerifiedToken record is the immutable result of parsing and verifying a JWT once.
+ *
+ * Purpose:
+ * Carries the claims callers actually need (subject, issue/expiry times, roles and token id) so that
+ * the token does not have to be parsed and signature-checked again for each claim.
+ *
+ * Impact on the Application:
+ * - A request pays for exactly one signature verification.
+ * - Can be passed freely between threads and components since it cannot change.
+ *
+ * @param subject   the token subject (the user's email).
+ * @param userId    the user's id claim, or null for tokens issued without one.
+ * @param issuedAt  when the token was issued.
+ * @param expiresAt when the token expires.
+ * @param roles     the role claims embedded in the token, empty if none were present.
+ * @param tokenId   the `jti` claim used for revocation, or null for tokens issued without one.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+public record VerifiedToken(String subject, Long userId, Instant issuedAt, Instant expiresAt, Set<String> roles,
+        String tokenId) {
+
+    public VerifiedToken {
+        roles = roles == null ? Set.of() : Set.copyOf(roles);
+    }
+
+    /**
+     * Indicates whether the token carries enough claims to build a principal without
+     * loading the user from the database.
+     *
+     * @return true if both the user id and at least one role are present.
+     */
+    public boolean hasPrincipalClaims() {
+        return userId != null && !roles.isEmpty();
+    }
+
+    /**
+     * Checks whether the token has expired relative to the given instant.
+     *
+     * @param now the instant to compare against.
+     * @return true if the token is expired at {@code now}.
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
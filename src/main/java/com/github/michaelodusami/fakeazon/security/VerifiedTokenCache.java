@@ -0,0 +1,231 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The VerifiedTokenCache class remembers the principal resolved for bearer tokens that
+ * have already been verified.
+ *
+ * Purpose:
+ * Clients reuse the same token for many requests during its lifetime. Caching the resolved
+ * principal lets `JwtAuthFilter` skip the signature check and user lookup on repeat requests.
+ *
+ * Why It Matters:
+ * Entries are keyed by a SHA-256 digest of the token, so raw tokens are never kept in memory,
+ * and each entry expires at the earlier of the configured TTL and the token's own `exp`.
+ * Entries are also indexed by the principal's user id and email, so a changed or deleted user
+ * can be evicted without waiting for the token to expire.
+ *
+ * Impact on the Application:
+ * - `UserCacheInvalidator` evicts a user's entries along with the user caches, on every instance
+ * when the invalidation feed is enabled; the next request reloads the user.
+ * - Bounded by `spring.jwt.cache.max-size` and `spring.jwt.cache.ttl`.
+ * - Exposes hit, miss and eviction counters as `cache.*` metrics tagged `cache=jwt.verified-tokens`.
+ *
+ * @author Michael-Andre Odusami
+ * @version 1.0.0
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String METRIC_NAME = "jwt.verified-tokens";
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final Map<Object, Set<String>> digestsByUser = new ConcurrentHashMap<>(); // By user id and email key.
+
+    /**
+     * A cached principal and the token it was resolved for.
+     *
+     * @param principal the principal resolved when the token was first verified.
+     * @param token     the verified token; its `jti` is checked against the revocation list on
+     *                  every hit.
+     */
+    public record CachedPrincipal(UserDetails principal, VerifiedToken token) {
+    }
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param maxSize       the maximum number of cached tokens.
+     * @param ttl           the longest time an entry may live, regardless of token expiry.
+     * @param meterRegistry the registry the cache statistics are published to.
+     */
+    @Autowired
+    public VerifiedTokenCache(@Value("${spring.jwt.cache.max-size:10000}") long maxSize,
+            @Value("${spring.jwt.cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl))
+                .<String, CachedPrincipal>evictionListener((digest, cached, cause) -> unindex(digest, cached))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME);
+    }
+
+    /**
+     * Looks up the principal cached for a token.
+     *
+     * @param token the raw bearer token.
+     * @return the cached principal, or null if the token has not been seen or has expired.
+     */
+    public CachedPrincipal get(String token) {
+        CachedPrincipal cached = cache.getIfPresent(digest(token));
+        if (cached != null && cached.token().isExpired(Instant.now())) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the principal resolved for a verified token.
+     *
+     * @param token         the raw bearer token.
+     * @param verifiedToken the verified token; tokens without an expiry are not cached.
+     * @param principal     the principal resolved for it.
+     */
+    public void put(String token, VerifiedToken verifiedToken, UserDetails principal) {
+        if (verifiedToken.expiresAt() == null) {
+            return;
+        }
+        String digest = digest(token);
+        cache.put(digest, new CachedPrincipal(principal, verifiedToken));
+        for (Object userKey : userKeys(principal)) {
+            digestsByUser.compute(userKey, (key, digests) -> {
+                Set<String> indexed = digests == null ? new HashSet<>() : digests;
+                indexed.add(digest);
+                return indexed;
+            });
+        }
+    }
+
+    /**
+     * Drops every entry whose principal has the given user id.
+     *
+     * @param userId the id of the changed or deleted user.
+     */
+    public void invalidateUser(Long userId) {
+        invalidateIndexed(userId);
+    }
+
+    /**
+     * Drops every entry whose principal has the given email, in any case.
+     *
+     * @param email the email of the changed or deleted user.
+     */
+    public void invalidateSubject(String email) {
+        invalidateIndexed(CacheConfig.emailKey(email));
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters.
+     *
+     * @return the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        digestsByUser.clear();
+    }
+
+    private void invalidateIndexed(Object userKey) {
+        Set<String> digests = digestsByUser.remove(userKey);
+        if (digests == null) {
+            return;
+        }
+        for (String digest : digests) {
+            // Explicit removals skip the eviction listener, so drop the entry's other index key here
+            CachedPrincipal removed = cache.asMap().remove(digest);
+            if (removed != null) {
+                unindex(digest, removed);
+            }
+        }
+    }
+
+    private void unindex(String digest, CachedPrincipal cached) {
+        for (Object userKey : userKeys(cached.principal())) {
+            digestsByUser.computeIfPresent(userKey, (key, digests) -> {
+                digests.remove(digest);
+                return digests.isEmpty() ? null : digests;
+            });
+        }
+    }
+
+    private static List<Object> userKeys(UserDetails principal) {
+        List<Object> keys = new ArrayList<>(2);
+        if (principal.getId() != null) {
+            keys.add(principal.getId());
+        }
+        if (principal.getUsername() != null) {
+            keys.add(CacheConfig.emailKey(principal.getUsername()));
+        }
+        return keys;
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires each entry at the earlier of the configured TTL and the token's expiry.
+     */
+    private static final class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        private final long ttlNanos;
+
+        TokenExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.token().expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Run by Hibernate after it creates the schema (ddl-auto=create/create-drop).
+-- Case-insensitive email uniqueness; registration relies on this index instead of a prior lookup.
+CREATE UNIQUE INDEX uk_users_email ON users (lower(email));
+-- Role filters are bit tests on users.role_mask (see UserRole). Admins are few, so they get a
+-- partial index; every user holds USER, so that bit is not worth indexing.
+CREATE INDEX idx_users_role_admin ON users (id) WHERE (role_mask & 2) <> 0;
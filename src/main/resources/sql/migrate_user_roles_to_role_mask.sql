@@ -0,0 +1,33 @@
+-- Moves roles from the user_roles table into the users.role_mask bitmask (one bit per UserRole:
+-- 1 = USER, 2 = ADMIN). Run once against an existing database before deploying the version
+-- that maps User.roles to role_mask. Re-running it is harmless while user_roles still exists.
+
+BEGIN;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role_mask integer NOT NULL DEFAULT 0;
+
+-- Role names were stored both bare ("ADMIN") and prefixed ("ROLE_ADMIN").
+UPDATE users u
+SET role_mask = m.mask
+FROM (
+    SELECT user_id,
+           bit_or(CASE upper(regexp_replace(roles, '^ROLE_', '', 'i'))
+                      WHEN 'USER' THEN 1
+                      WHEN 'ADMIN' THEN 2
+                      ELSE 0
+                  END) AS mask
+    FROM user_roles
+    GROUP BY user_id
+) m
+WHERE m.user_id = u.id;
+
+CREATE INDEX IF NOT EXISTS idx_users_role_admin ON users (id) WHERE (role_mask & 2) <> 0;
+
+COMMIT;
+
+-- Roles that match no UserRole are dropped by the mapping above. Review them before going on:
+--   SELECT user_id, roles FROM user_roles
+--   WHERE upper(regexp_replace(roles, '^ROLE_', '', 'i')) NOT IN ('USER', 'ADMIN');
+--
+-- Once the new version is running, the old table is no longer read:
+--   DROP TABLE user_roles;
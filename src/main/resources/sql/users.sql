@@ -1,12 +1,6 @@
-
-INSERT INTO users (name, email, password, created_at, updated_at) 
+-- role_mask holds one bit per UserRole: 1 = USER, 2 = ADMIN.
+INSERT INTO users (id, name, email, password, role_mask, created_at, updated_at) 
 VALUES 
-('John Doe', 'john.doe@example.com', 'password123', '2024-12-18 10:00:00', '2024-12-18 10:00:00'),
-('Jane Smith', 'jane.smith@example.com', 'securepass', '2024-12-18 11:00:00', '2024-12-18 11:00:00'),
-('Emily Davis', 'emily.davis@example.com', 'mypassword', '2024-12-18 12:00:00', '2024-12-18 12:00:00')
-
-INSERT INTO user_roles (user_id, roles) 
-VALUES 
-(1, 'USER'),
-(2, 'ADMIN'),
-(3, 'USER'),
+(nextval('users_seq'), 'John Doe', 'john.doe@example.com', 'password123', 1, '2024-12-18 10:00:00', '2024-12-18 10:00:00'),
+(nextval('users_seq'), 'Jane Smith', 'jane.smith@example.com', 'securepass', 2, '2024-12-18 11:00:00', '2024-12-18 11:00:00'),
+(nextval('users_seq'), 'Emily Davis', 'emily.davis@example.com', 'mypassword', 1, '2024-12-18 12:00:00', '2024-12-18 12:00:00');
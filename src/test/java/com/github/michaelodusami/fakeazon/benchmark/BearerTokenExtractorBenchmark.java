@@ -0,0 +1,71 @@
+package com.github.michaelodusami.fakeazon.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.michaelodusami.fakeazon.security.BearerTokenExtractor;
+
+/**
+ * Compares the original `split(" ")[1].trim()` header parsing with BearerTokenExtractor.
+ *
+ * Run with -prof gc to compare allocation per operation as well as time.
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main BearerTokenExtractorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BearerTokenExtractorBenchmark {
+
+    public String header = "Bearer eyJraWQiOiJVRzBjSmJaa3pSZFFpRkptIiwiYWxnIjoiRVMyNTYifQ"
+            + ".eyJ1aWQiOjEsInJvbGVzIjpbIlVTRVIiXSwianRpIjoiMmM2ZWY5YjkiLCJzdWIiOiJ1QHguY29tIn0"
+            + ".MEUCIQDx3Jw2l0n8bOa7yZ4Kx1b5sYx0mJx3JvH2pXW4uE8vBQIgE2cXgZK7dK0FZ6a1cJq6M";
+
+    public String malformed = "Bearer";
+
+    @Benchmark
+    public String splitAndTrim() {
+        return header.startsWith("Bearer ") ? header.split(" ")[1].trim() : null;
+    }
+
+    @Benchmark
+    public String extractor() {
+        return BearerTokenExtractor.extract(header);
+    }
+
+    @Benchmark
+    public String splitAndTrimMalformed() {
+        try {
+            return malformed.split(" ")[1].trim();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String extractorMalformed() {
+        return BearerTokenExtractor.extract(malformed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BearerTokenExtractorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
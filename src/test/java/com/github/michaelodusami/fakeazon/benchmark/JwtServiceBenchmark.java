@@ -0,0 +1,76 @@
+package com.github.michaelodusami.fakeazon.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.michaelodusami.fakeazon.security.JwtService;
+import com.github.michaelodusami.fakeazon.security.RotatingJwtKeyRing;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Measures the per-validation cost of JwtService.
+ *
+ * `rebuildKeyAndParser` reproduces the original behaviour (decode the secret and
+ * build a parser for every call); `cachedKeyAndParser` goes through JwtService,
+ * which reuses the key and parser built at startup.
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtServiceBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "851e2cb4ac7657b6cff30a0ae25080e70c1a27d4c452050bcd55cf55ed8af4c0795a717a03ff5c290ebb1073c45e8f9b22aa65796f17d06c6df2e30cb01f27c56b760cd5432f758cd7df86fc8e9f6d9c678a33c2b2022dca999b349ac76f2fcf65fd0ca2f1a16920aef6df175aa215035ffc6221d769ee92a6518470773f4d208a33f75adb32ce9acfb621615684d85fd78ddc906a8d98c891bd13843edf776f079d301d216427dc6593ee978f6d313d4dfb0e82f842cdd526f06ad495d160f009fea20210b35f7bb6a143de9bf3e356d52194f04b07cc33c7e3e10da4692a6488bd3b2f7100335f7919eda948aa82945b21c64fd4df2f50c02e8021d21c35e9";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new RotatingJwtKeyRing("HS256", SECRET, Duration.ZERO, Duration.ofHours(1)));
+        token = jwtService.generateToken("bench@example.com");
+    }
+
+    @Benchmark
+    public String rebuildKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String cachedKeyAndParser() {
+        return jwtService.extractUsername(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
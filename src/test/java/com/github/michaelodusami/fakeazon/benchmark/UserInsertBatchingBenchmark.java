@@ -0,0 +1,159 @@
+package com.github.michaelodusami.fakeazon.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.github.michaelodusami.fakeazon.FakeazonApplication;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Inserts 100k users through UserRepository.saveAll and checks from Hibernate statistics that the
+ * inserts were sent as JDBC batches.
+ *
+ * `batchSize=0` disables batching as a baseline. With batching on, each prepared statement carries
+ * up to `batchSize` rows, so the teardown fails the run if the statement count is not well below
+ * the row count.
+ *
+ * Starts a Postgres container unless `-Dbenchmark.jdbc.url` (plus optional
+ * `benchmark.jdbc.username` / `benchmark.jdbc.password`) points at an existing, disposable
+ * database; the schema is recreated.
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main UserInsertBatchingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class UserInsertBatchingBenchmark {
+
+    static final int USERS = 100_000;
+    static final int CHUNK = 1_000; // Users per transaction
+
+    // Any well-formed hash works; the benchmark measures inserts, not hashing.
+    static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7bF3g8e8yE0Xz9lQ3cJd3G.";
+
+    @Param({ "50", "0" })
+    public int batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private Statistics statistics;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        String username = System.getProperty("benchmark.jdbc.username", "postgres");
+        String password = System.getProperty("benchmark.jdbc.password", "");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+
+        // Passed as command line arguments so they take precedence over application.properties
+        String[] arguments = {
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.docker.compose.enabled=false",
+                "--spring.jwt.secret=" + JwtServiceBenchmark.SECRET,
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+        };
+        context = new SpringApplicationBuilder(FakeazonApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        userRepository = context.getBean(UserRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        run++;
+    }
+
+    @Benchmark
+    public long insertUsers() {
+        for (int offset = 0; offset < USERS; offset += CHUNK) {
+            List<User> chunk = new ArrayList<>(CHUNK);
+            for (int i = offset; i < offset + CHUNK; i++) {
+                User user = User.builder()
+                        .name("User " + i)
+                        .email("user-" + run + "-" + i + "@example.com")
+                        .password(PASSWORD_HASH)
+                        .build();
+                user.getRoles().add(UserRole.ROLE_USER);
+                chunk.add(user);
+            }
+            userRepository.saveAll(chunk); // One transaction per chunk
+        }
+        return statistics.getEntityInsertCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkBatching() {
+        long inserts = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%n  batch_size=%d: %d user inserts, %d prepared statements (%.1f rows per statement)%n",
+                batchSize, inserts, statements, 2.0 * inserts / statements); // User row + role row each
+
+        if (batchSize > 1 && statements * 10 > inserts) {
+            throw new IllegalStateException("Inserts were not batched: " + statements
+                    + " prepared statements for " + inserts + " users");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserInsertBatchingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
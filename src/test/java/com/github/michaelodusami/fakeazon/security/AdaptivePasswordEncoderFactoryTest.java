@@ -0,0 +1,61 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class AdaptivePasswordEncoderFactoryTest {
+
+    @ParameterizedTest
+    @CsvSource({ "bcrypt, 4", "argon2, 1", "pbkdf2, 1000" })
+    void create_roundTripsAndPrefixesHashes(String algorithm, int cost) {
+        PasswordEncoder encoder = AdaptivePasswordEncoderFactory.create(algorithm, cost);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(hash.startsWith("{" + algorithm + "}"));
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void legacyBcryptHashesVerifyAndAreUpgraded() {
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        PasswordEncoder encoder = AdaptivePasswordEncoderFactory.create("argon2", 1);
+
+        assertTrue(encoder.matches("password123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void hashesBelowCurrentCostAreUpgraded() {
+        String weakBcrypt = AdaptivePasswordEncoderFactory.create("bcrypt", 4).encode("password123");
+        String weakPbkdf2 = AdaptivePasswordEncoderFactory.create("pbkdf2", 1000).encode("password123");
+
+        PasswordEncoder strongBcrypt = AdaptivePasswordEncoderFactory.create("bcrypt", 5);
+        PasswordEncoder strongPbkdf2 = AdaptivePasswordEncoderFactory.create("pbkdf2", 2000);
+
+        assertTrue(strongBcrypt.upgradeEncoding(weakBcrypt));
+        assertTrue(strongPbkdf2.upgradeEncoding(weakPbkdf2));
+        assertTrue(strongPbkdf2.matches("password123", weakPbkdf2)); // Older iteration counts still verify
+    }
+
+    @Test
+    void calibrate_neverGoesBelowFloor() {
+        assertTrue(AdaptivePasswordEncoderFactory.calibrate("bcrypt", Duration.ofNanos(1)) >= 10);
+    }
+
+    @Test
+    void create_rejectsUnknownAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePasswordEncoderFactory.create("md5", 1));
+    }
+}
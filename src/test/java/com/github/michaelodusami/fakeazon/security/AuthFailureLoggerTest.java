@@ -0,0 +1,55 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthFailureLoggerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthFailureLogger failureLogger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        failureLogger = new AuthFailureLogger(meterRegistry);
+    }
+
+    @Test
+    void reason_classifiesVerificationExceptions() {
+        ExpiredJwtException expired = new ExpiredJwtException(Jwts.header().build(),
+                Jwts.claims().expiration(new Date()).build(), "expired");
+
+        assertEquals(AuthFailureReason.EXPIRED, AuthFailureReason.of(expired));
+        assertEquals(AuthFailureReason.BAD_SIGNATURE, AuthFailureReason.of(new SignatureException("bad")));
+        assertEquals(AuthFailureReason.MALFORMED, AuthFailureReason.of(new MalformedJwtException("bad")));
+        assertEquals(AuthFailureReason.UNSUPPORTED, AuthFailureReason.of(new UnsupportedJwtException("kid")));
+        assertEquals(AuthFailureReason.ERROR, AuthFailureReason.of(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void record_countsPerReasonAndAggregatesUntilFlushed() {
+        for (int i = 0; i < 1_000; i++) {
+            failureLogger.record(new SignatureException("JWT signature does not match"));
+        }
+        failureLogger.record(AuthFailureReason.UNKNOWN_USER, null);
+
+        assertEquals(1_000, meterRegistry.get("jwt.auth.failures").tag("reason", "bad_signature").counter().count());
+
+        Map<AuthFailureReason, Long> window = failureLogger.drain();
+        assertEquals(Map.of(AuthFailureReason.BAD_SIGNATURE, 1_000L, AuthFailureReason.UNKNOWN_USER, 1L), window);
+        assertTrue(failureLogger.drain().isEmpty());
+    }
+}
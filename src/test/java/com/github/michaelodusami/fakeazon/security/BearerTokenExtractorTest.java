@@ -0,0 +1,26 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BearerTokenExtractorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "Bearer abc.def.ghi", "bearer abc.def.ghi", "BEARER abc.def.ghi",
+            "Bearer   abc.def.ghi", "  Bearer abc.def.ghi  ", "Bearer\tabc.def.ghi" })
+    void extract_returnsTokenForWellFormedHeaders(String header) {
+        assertEquals("abc.def.ghi", BearerTokenExtractor.extract(header));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "", "Bearer", "Bearer ", "Bearer    ", "Bearerabc.def.ghi", "Basic dXNlcjpwYXNz",
+            "Bear abc", "Bearer abc def", "abc.def.ghi" })
+    void extract_returnsNullForMalformedHeaders(String header) {
+        assertNull(BearerTokenExtractor.extract(header));
+    }
+}
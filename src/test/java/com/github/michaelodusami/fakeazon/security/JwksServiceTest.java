@@ -0,0 +1,51 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JwksServiceTest {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlzZWN1cmVzZWNyZXRrZXl0aGF0aXNsb25nZW5vdWdo";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void current_publishesPublicKeysAndReusesDocumentUntilRotation() throws Exception {
+        RotatingJwtKeyRing keyRing = new RotatingJwtKeyRing("RS256", null, Duration.ZERO, Duration.ofHours(1));
+        JwksService jwksService = new JwksService(keyRing, objectMapper);
+
+        JwksService.JwksDocument first = jwksService.current();
+        JsonNode keys = objectMapper.readTree(first.json()).get("keys");
+
+        assertEquals(1, keys.size());
+        assertEquals(keyRing.current().kid(), keys.get(0).get("kid").asText());
+        assertEquals("RSA", keys.get(0).get("kty").asText());
+        assertTrue(keys.get(0).has("n"));
+        assertTrue(!keys.get(0).has("d"),
+                "private exponent must never be published");
+        assertSame(first, jwksService.current());
+
+        keyRing.rotate();
+        JwksService.JwksDocument rotated = jwksService.current();
+
+        assertNotEquals(first.etag(), rotated.etag());
+        assertEquals(2, objectMapper.readTree(rotated.json()).get("keys").size());
+    }
+
+    @Test
+    void current_withHmacKeyPublishesEmptySet() throws Exception {
+        JwksService jwksService = new JwksService(
+                new RotatingJwtKeyRing("HS256", SECRET, Duration.ZERO, Duration.ofHours(1)), objectMapper);
+
+        assertEquals(0, objectMapper.readTree(jwksService.current().json()).get("keys").size());
+    }
+}
@@ -3,14 +3,14 @@ package com.github.michaelodusami.fakeazon.security;
 import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,9 +19,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
-import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -37,7 +37,16 @@ public class JwtAuthFilterTest {
     private JwtService jwtService;
 
     @Mock
-    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private AuthFailureLogger authFailureLogger;
 
     @Mock
     private HttpServletRequest request;
@@ -51,6 +60,7 @@ public class JwtAuthFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -73,9 +83,10 @@ public class JwtAuthFilterTest {
 
         when(request.getServletPath()).thenReturn("/v1/users");
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenReturn(email);
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(mockUser));
-        when(jwtService.validateToken(eq(token), any())).thenReturn(true);
+        VerifiedToken verifiedToken = new VerifiedToken(email, null, Instant.now(),
+                Instant.now().plusSeconds(60), Set.of(), null);
+        when(jwtService.verify(token)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(new UserDetails(mockUser));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
@@ -83,6 +94,70 @@ public class JwtAuthFilterTest {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(authentication);
         assertEquals(email, authentication.getName());
+        verify(request).setAttribute(JwtAuthFilter.VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutRepositoryLookup() throws ServletException, IOException {
+        String token = "valid.jwt.token";
+        String email = "test@example.com";
+        ReflectionTestUtils.setField(jwtAuthFilter, "claimsPrincipal", true);
+
+        when(request.getServletPath()).thenReturn("/v1/users");
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+        when(jwtService.verify(token)).thenReturn(new VerifiedToken(email, 7L, Instant.now(),
+                Instant.now().plusSeconds(60), Set.of("ADMIN"), "jti-1"));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(email, authentication.getName());
+        assertEquals(7L, ((UserDetails) authentication.getPrincipal()).getId());
+        assertEquals("ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void shouldAuthenticateFromCacheWithoutVerifyingAgain() throws ServletException, IOException {
+        String token = "cached.jwt.token";
+        User mockUser = new User();
+        mockUser.setEmail("test@example.com");
+
+        when(request.getServletPath()).thenReturn("/v1/users");
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+        VerifiedToken verifiedToken = new VerifiedToken("test@example.com", null, Instant.now(),
+                Instant.now().plusSeconds(60), Set.of(), null);
+        when(verifiedTokenCache.get(token)).thenReturn(
+                new VerifiedTokenCache.CachedPrincipal(new UserDetails(mockUser), verifiedToken));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        assertEquals("test@example.com", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(request).setAttribute(JwtAuthFilter.VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
+        verifyNoInteractions(jwtService, userDetailsService);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void shouldRejectRevokedTokenEvenWhenCached() throws ServletException, IOException {
+        String token = "revoked.jwt.token";
+        User mockUser = new User();
+        mockUser.setEmail("test@example.com");
+
+        when(request.getServletPath()).thenReturn("/v1/users");
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
+        when(verifiedTokenCache.get(token)).thenReturn(
+                new VerifiedTokenCache.CachedPrincipal(new UserDetails(mockUser), new VerifiedToken("test@example.com",
+                        null, Instant.now(), Instant.now().plusSeconds(60), Set.of(), "jti-1")));
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(authFailureLogger).record(AuthFailureReason.REVOKED, null);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -93,12 +168,14 @@ public class JwtAuthFilterTest {
 
         when(request.getServletPath()).thenReturn("/v1/users");
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenThrow(new RuntimeException("Invalid Token"));
+        RuntimeException failure = new RuntimeException("Invalid Token");
+        when(jwtService.verify(token)).thenThrow(failure);
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         // Verify SecurityContext is not populated
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(authFailureLogger).record(failure);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -0,0 +1,100 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtServiceTest {
+
+    static final String SECRET = "851e2cb4ac7657b6cff30a0ae25080e70c1a27d4c452050bcd55cf55ed8af4c0795a717a03ff5c290ebb1073c45e8f9b22aa65796f17d06c6df2e30cb01f27c56b760cd5432f758cd7df86fc8e9f6d9c678a33c2b2022dca999b349ac76f2fcf65fd0ca2f1a16920aef6df175aa215035ffc6221d769ee92a6518470773f4d208a33f75adb32ce9acfb621615684d85fd78ddc906a8d98c891bd13843edf776f079d301d216427dc6593ee978f6d313d4dfb0e82f842cdd526f06ad495d160f009fea20210b35f7bb6a143de9bf3e356d52194f04b07cc33c7e3e10da4692a6488bd3b2f7100335f7919eda948aa82945b21c64fd4df2f50c02e8021d21c35e9";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new RotatingJwtKeyRing("HS256", SECRET, Duration.ZERO, Duration.ofHours(1)));
+    }
+
+    @Test
+    void verify_returnsClaimsFromSingleParse() {
+        String token = jwtService.generateToken("john.doe@example.com");
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals("john.doe@example.com", verified.subject());
+        assertNotNull(verified.issuedAt());
+        assertNotNull(verified.expiresAt());
+        assertTrue(verified.expiresAt().isAfter(verified.issuedAt()));
+        assertFalse(verified.isExpired(Instant.now()));
+        assertTrue(verified.roles().isEmpty());
+        assertFalse(verified.hasPrincipalClaims());
+        assertNotNull(verified.tokenId());
+    }
+
+    @Test
+    void generateToken_embedsUserIdAndRoles() {
+        User user = User.builder().id(42L).email("admin@example.com").roles(EnumSet.of(UserRole.ROLE_ADMIN)).build();
+
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(user));
+
+        assertEquals("admin@example.com", verified.subject());
+        assertEquals(42L, verified.userId());
+        assertEquals(Set.of("ADMIN"), verified.roles());
+        assertTrue(verified.hasPrincipalClaims());
+    }
+
+    @Test
+    void generateToken_fromPrincipalMatchesEntityClaims() {
+        User user = User.builder().id(42L).name("Admin").email("admin@example.com").roles(EnumSet.of(UserRole.ROLE_ADMIN)).build();
+
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(new UserDetails(user)));
+
+        assertEquals("admin@example.com", verified.subject());
+        assertEquals(42L, verified.userId());
+        assertEquals(Set.of("ADMIN"), verified.roles());
+    }
+
+    @Test
+    void verify_rejectsTamperedToken() {
+        String token = jwtService.generateToken("john.doe@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    void verify_rejectsTokenSignedWithDifferentSecret() {
+        String token = jwtService.generateToken("john.doe@example.com");
+        JwtService other = new JwtService(
+                new RotatingJwtKeyRing("HS256", SECRET.replace('8', '9'), Duration.ZERO, Duration.ofHours(1)));
+
+        assertThrows(JwtException.class, () -> other.verify(token));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "HS256", "RS256", "ES256", "EdDSA" })
+    void verify_roundTripsForEverySupportedAlgorithm(String algorithm) {
+        JwtService service = new JwtService(new RotatingJwtKeyRing(algorithm, null, Duration.ZERO, Duration.ofHours(1)));
+
+        VerifiedToken verified = service.verify(service.generateToken("john.doe@example.com"));
+
+        assertEquals("john.doe@example.com", verified.subject());
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RegisteredEmailFilterTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registeredEmailFilter = filter(true);
+    }
+
+    @Test
+    void mightBeRegistered_rejectsUnknownEmails() {
+        assertFalse(registeredEmailFilter.mightBeRegistered("nobody@x.com"));
+
+        assertEquals(1, count("bloom-negative"));
+    }
+
+    @Test
+    void add_takesEffectImmediatelyAndIgnoresCase() {
+        registeredEmailFilter.add("Mike@X.com");
+
+        assertTrue(registeredEmailFilter.mightBeRegistered("mike@x.com"));
+        assertTrue(registeredEmailFilter.mightBeRegistered("MIKE@x.COM"));
+        assertEquals(2, count("bloom-positive"));
+    }
+
+    @Test
+    void rebuild_loadsEmailsRegisteredElsewhere() {
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamEmails()).thenReturn(Stream.of("other-node@x.com"));
+
+        registeredEmailFilter.rebuild();
+
+        assertTrue(registeredEmailFilter.mightBeRegistered("other-node@x.com"));
+        assertFalse(registeredEmailFilter.mightBeRegistered("nobody@x.com"));
+    }
+
+    @Test
+    void mightBeRegistered_withoutRejectUnknownLetsNegativesReachTheDatabase() {
+        RegisteredEmailFilter untrusted = filter(false);
+
+        // Registered on another instance since the last rebuild, so this instance has not seen it
+        assertTrue(untrusted.mightBeRegistered("other-node@x.com"));
+
+        assertEquals(1, count("bloom-negative-checked"));
+        assertEquals(0, count("bloom-negative"));
+    }
+
+    @Test
+    void initialize_failingBuildDoesNotThrowAndLetsEveryEmailThrough() {
+        RegisteredEmailFilter unbuilt = new RegisteredEmailFilter(userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1_000, 0.01, true,
+                new SimpleMeterRegistry());
+        when(userRepository.count()).thenThrow(new IllegalStateException("database down"));
+
+        assertDoesNotThrow(unbuilt::initialize);
+
+        assertTrue(unbuilt.mightBeRegistered("anyone@x.com"));
+    }
+
+    private RegisteredEmailFilter filter(boolean rejectUnknown) {
+        RegisteredEmailFilter filter = new RegisteredEmailFilter(userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1_000, 0.01, rejectUnknown,
+                meterRegistry);
+        when(userRepository.streamEmails()).thenReturn(Stream.empty());
+        filter.initialize();
+        return filter;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("auth.registered-email.checks").tag("outcome", outcome).counter().count();
+    }
+}
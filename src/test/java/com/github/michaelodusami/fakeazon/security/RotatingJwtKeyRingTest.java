@@ -0,0 +1,70 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+class RotatingJwtKeyRingTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private RotatingJwtKeyRing keyRing;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new RotatingJwtKeyRing("ES256", null, Duration.ofHours(24), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        jwtService = new JwtService(keyRing);
+    }
+
+    @Test
+    void generateToken_writesCurrentKidToHeader() {
+        String token = jwtService.generateToken("john.doe@example.com");
+
+        String kid = Jwts.parser().keyLocator(header -> keyRing.current().verificationKey()).build()
+                .parseSignedClaims(token).getHeader().getKeyId();
+
+        assertEquals(keyRing.current().kid(), kid);
+        assertTrue(keyRing.current().isAsymmetric());
+    }
+
+    @Test
+    void rotate_keepsPreviousKeyVerifyingUntilRetired() {
+        String oldToken = jwtService.generateToken("john.doe@example.com");
+        String oldKid = keyRing.current().kid();
+
+        keyRing.rotate();
+
+        assertNotEquals(oldKid, keyRing.current().kid());
+        assertEquals(2, keyRing.activeKeys().size());
+        assertEquals("john.doe@example.com", jwtService.verify(oldToken).subject());
+
+        keyRing.retireExpired(NOW.plus(Duration.ofHours(2)));
+
+        assertNull(keyRing.find(oldKid));
+        assertEquals(1, keyRing.activeKeys().size());
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.verify(oldToken));
+    }
+
+    @Test
+    void hmacKeyFromSecret_hasStableKid() {
+        RotatingJwtKeyRing first = new RotatingJwtKeyRing("HS256", JwtServiceTest.SECRET, Duration.ZERO, Duration.ofHours(1));
+        RotatingJwtKeyRing second = new RotatingJwtKeyRing("HS256", JwtServiceTest.SECRET, Duration.ZERO, Duration.ofHours(1));
+
+        assertEquals(first.current().kid(), second.current().kid());
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserCacheInvalidation;
+import com.github.michaelodusami.fakeazon.modules.user.repository.RevokedTokenRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidationPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRevocationServiceTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private UserCacheInvalidationPublisher publisher;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        publisher = mock(UserCacheInvalidationPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        revocationService = service(true, meterRegistry);
+        when(revokedTokenRepository.streamActiveTokenIds(any())).thenAnswer(invocation -> Stream.empty());
+        revocationService.initialize();
+    }
+
+    @Test
+    void isRevoked_skipsStoreForTokensNotInFilter() {
+        assertFalse(revocationService.isRevoked("never-revoked"));
+
+        verify(revokedTokenRepository, never()).existsById(any());
+        assertEquals(1, count("bloom-negative"));
+    }
+
+    @Test
+    void isRevoked_checksStoreForNegativesUnlessTheyAreTrusted() {
+        TokenRevocationService untrusted = service(false, meterRegistry);
+        untrusted.initialize();
+        when(revokedTokenRepository.existsById("revoked-elsewhere")).thenReturn(true);
+
+        // Revoked on another instance after this filter was built
+        assertTrue(untrusted.isRevoked("revoked-elsewhere"));
+        assertFalse(untrusted.isRevoked("never-revoked"));
+        assertEquals(1, count("revoked"));
+        assertEquals(1, count("bloom-negative-checked"));
+    }
+
+    @Test
+    void revoke_isPublishedToOtherInstances() {
+        revocationService.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        verify(publisher).publish(new UserCacheInvalidation(List.of(), List.of(), List.of("jti-1")));
+    }
+
+    @Test
+    void add_recordsRevocationFromAnotherInstance() {
+        revocationService.add("jti-2");
+        when(revokedTokenRepository.existsById("jti-2")).thenReturn(true);
+
+        assertTrue(revocationService.isRevoked("jti-2"));
+        verify(revokedTokenRepository, never()).insertIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void revoke_takesEffectImmediatelyAndIsConfirmedByStore() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        revocationService.revoke("jti-1", expiresAt);
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(revocationService.isRevoked("jti-1"));
+        assertEquals(1, count("revoked"));
+        verify(revokedTokenRepository).insertIfAbsent(eq("jti-1"), eq(expiresAt), any());
+    }
+
+    @Test
+    void initialize_failingBuildDoesNotThrowAndChecksTheStoreUntilRebuilt() {
+        TokenRevocationService unbuilt = service(true, new SimpleMeterRegistry());
+        when(revokedTokenRepository.deleteExpired(any())).thenThrow(new IllegalStateException("database down"));
+        when(revokedTokenRepository.existsById("revoked-elsewhere")).thenReturn(true);
+
+        assertDoesNotThrow(unbuilt::initialize);
+
+        // An empty filter would wave this token through
+        assertTrue(unbuilt.isRevoked("revoked-elsewhere"));
+    }
+
+    @Test
+    void rebuild_loadsRevocationsWrittenElsewhereAndDropsExpiredOnes() {
+        revocationService.revoke("expired", Instant.now().minusSeconds(1));
+        when(revokedTokenRepository.count()).thenReturn(1L);
+        when(revokedTokenRepository.streamActiveTokenIds(any())).thenReturn(Stream.of("from-other-node"));
+        when(revokedTokenRepository.existsById("from-other-node")).thenReturn(true);
+
+        revocationService.rebuild();
+
+        assertTrue(revocationService.isRevoked("from-other-node"));
+        assertFalse(revocationService.isRevoked("expired"));
+        verify(revokedTokenRepository, never()).existsById("expired");
+    }
+
+    private TokenRevocationService service(boolean trustNegatives, SimpleMeterRegistry registry) {
+        return new TokenRevocationService(revokedTokenRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1_000, 0.01, trustNegatives,
+                new StaticListableBeanFactory(Map.of("publisher", publisher))
+                        .getBeanProvider(UserCacheInvalidationPublisher.class),
+                registry);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("jwt.revocation.checks").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.michaelodusami.fakeazon.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private UserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(100, Duration.ofMinutes(5), meterRegistry);
+        User user = new User();
+        user.setEmail("john.doe@example.com");
+        principal = new UserDetails(user);
+    }
+
+    @Test
+    void get_returnsCachedPrincipalAndCountsHitsAndMisses() {
+        assertNull(cache.get("token"));
+
+        cache.put("token", token(Instant.now().plusSeconds(60)), principal);
+
+        assertSame(principal, cache.get("token").principal());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", VerifiedTokenCache.METRIC_NAME).functionCounter());
+    }
+
+    @Test
+    void get_neverReturnsEntryPastTokenExpiry() {
+        cache.put("expired", token(Instant.now().minusSeconds(1)), principal);
+
+        assertNull(cache.get("expired"));
+    }
+
+    @Test
+    void invalidate_dropsEveryTokenOfThatUserOnly() {
+        VerifiedToken other = new VerifiedToken("jane@example.com", 2L, Instant.now(), Instant.now().plusSeconds(60),
+                Set.of("USER"), "jti-2");
+        cache.put("first", token(Instant.now().plusSeconds(60)), new UserDetails(token(Instant.now().plusSeconds(60))));
+        cache.put("second", token(Instant.now().plusSeconds(60)), new UserDetails(token(Instant.now().plusSeconds(60))));
+        cache.put("other", other, new UserDetails(other));
+
+        cache.invalidateUser(1L);
+
+        assertNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("other"));
+
+        cache.put("first", token(Instant.now().plusSeconds(60)), principal);
+        cache.invalidateSubject("John.Doe@Example.com");
+
+        assertNull(cache.get("first"));
+    }
+
+    @Test
+    void digest_doesNotKeepRawToken() {
+        String digest = VerifiedTokenCache.digest("header.payload.signature");
+
+        assertEquals(43, digest.length());
+        assertEquals(digest, VerifiedTokenCache.digest("header.payload.signature"));
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("john.doe@example.com", 1L, Instant.now(), expiresAt, Set.of("USER"), "jti-1");
+    }
+}
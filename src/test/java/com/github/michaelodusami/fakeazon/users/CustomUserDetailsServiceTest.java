@@ -7,11 +7,16 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
 import com.github.michaelodusami.fakeazon.security.CustomUserDetailsService;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
 import com.github.michaelodusami.fakeazon.security.UserDetails;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +28,12 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
@@ -33,11 +44,12 @@ class CustomUserDetailsServiceTest {
         user = new User();
         user.setEmail("john.doe@example.com");
         user.setPassword("encodedPassword");
-        user.getRoles().addAll(Set.of("ROLE_USER"));
+        user.getRoles().addAll(Set.of(UserRole.ROLE_USER));
     }
 
     @Test
     void testLoadUserByUsername_UserExists() {
+        when(registeredEmailFilter.mightBeRegistered("john.doe@example.com")).thenReturn(true);
         when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
 
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("john.doe@example.com");
@@ -47,13 +59,14 @@ class CustomUserDetailsServiceTest {
         assertEquals("encodedPassword", userDetails.getPassword());
         assertEquals(1, userDetails.getAuthorities().size());
         assertTrue(userDetails.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_USER")));
+                .anyMatch(auth -> auth.getAuthority().equals("USER")));
 
         verify(userRepository, times(1)).findByEmail("john.doe@example.com");
     }
 
     @Test
     void testLoadUserByUsername_UserNotFound() {
+        when(registeredEmailFilter.mightBeRegistered("unknown@example.com")).thenReturn(true);
         when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
 
         UsernameNotFoundException exception = assertThrows(UsernameNotFoundException.class, () -> {
@@ -63,4 +76,27 @@ class CustomUserDetailsServiceTest {
         assertEquals("User not found: unknown@example.com", exception.getMessage());
         verify(userRepository, times(1)).findByEmail("unknown@example.com");
     }
+
+    @Test
+    void testLoadUserByUsername_UnregisteredEmailSkipsDatabase() {
+        when(registeredEmailFilter.mightBeRegistered("stuffed@example.com")).thenReturn(false);
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserByUsername("stuffed@example.com"));
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void testUpdatePassword_StoresUpgradedHash() {
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        var updated = customUserDetailsService.updatePassword(new UserDetails(user), "{argon2}upgradedHash");
+
+        assertEquals("{argon2}upgradedHash", user.getPassword());
+        assertEquals("{argon2}upgradedHash", updated.getPassword());
+        verify(userRepository, times(1)).save(user);
+        verify(userCacheInvalidator).evict(user);
+    }
 }
@@ -0,0 +1,71 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.github.michaelodusami.fakeazon.modules.user.controller.JwksController;
+import com.github.michaelodusami.fakeazon.security.JwksService;
+import com.github.michaelodusami.fakeazon.security.JwksService.JwksDocument;
+
+class JwksControllerTest {
+
+    private static final String ETAG = "\"jwks-1\"";
+    private static final String URL = "/v1/auth/.well-known/jwks.json";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        JwksService jwksService = mock(JwksService.class);
+        when(jwksService.current()).thenReturn(
+                new JwksDocument("{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), ETAG, 1));
+        JwksController controller = new JwksController();
+        ReflectionTestUtils.setField(controller, "jwksService", jwksService);
+        ReflectionTestUtils.setField(controller, "maxAge", Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void jwks_servesDocumentWithEtag() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string("{\"keys\":[]}"));
+    }
+
+    @Test
+    void jwks_matchingEtagIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void jwks_etagInListOrWeakIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"stale\", " + ETAG))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void jwks_otherEtagIsServedAgain() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.RefreshToken;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.repository.RefreshTokenRepository;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.RefreshTokenService;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, Duration.ofDays(14));
+        user = User.builder().id(1L).name("John Doe").email("john.doe@example.com").build();
+    }
+
+    @Test
+    void issue_storesHashNotRawToken() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        String rawToken = refreshTokenService.issue(1L);
+
+        RefreshToken saved = captureSaved(1);
+        assertNotEquals(rawToken, saved.getTokenHash());
+        assertEquals(43, saved.getTokenHash().length());
+        assertSame(user, saved.getUser());
+    }
+
+    @Test
+    void rotate_marksTokenUsedAndIssuesSuccessorInSameFamily() {
+        RefreshToken stored = stored(false, Instant.now().plus(Duration.ofDays(1)));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(stored.getId())).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("presented-token");
+
+        assertSame(user, rotation.user());
+        RefreshToken successor = captureSaved(1);
+        assertEquals("family-1", successor.getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rotate_withUsedTokenRevokesFamily() {
+        RefreshToken stored = stored(true, Instant.now().plus(Duration.ofDays(1)));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("presented-token"));
+
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_losingConcurrentExchangeRevokesFamily() {
+        RefreshToken stored = stored(false, Instant.now().plus(Duration.ofDays(1)));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(anyLong())).thenReturn(0);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("presented-token"));
+
+        verify(refreshTokenRepository).revokeFamily("family-1");
+    }
+
+    @Test
+    void rotate_withExpiredTokenIsRejected() {
+        RefreshToken stored = stored(false, Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class,
+                () -> refreshTokenService.rotate("presented-token"));
+
+        assertEquals("Refresh token has expired", exception.getMessage());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_retryingExpiredTokenDoesNotRevokeFamily() {
+        RefreshToken stored = stored(false, Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            BadCredentialsException exception = assertThrows(BadCredentialsException.class,
+                    () -> refreshTokenService.rotate("presented-token"));
+            assertEquals("Refresh token has expired", exception.getMessage());
+        }
+
+        verify(refreshTokenRepository, never()).markUsed(anyLong());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rotate_withUnknownTokenIsRejected() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    private RefreshToken stored(boolean revoked, Instant expiresAt) {
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash("hash")
+                .familyId("family-1")
+                .user(user)
+                .createdAt(Instant.now())
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build();
+    }
+
+    private RefreshToken captureSaved(int times) {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(times)).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -2,6 +2,7 @@ package com.github.michaelodusami.fakeazon.users;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -23,6 +24,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.michaelodusami.fakeazon.modules.user.controller.UserAuthController;
 import com.github.michaelodusami.fakeazon.modules.user.dto.AuthResponse;
 import com.github.michaelodusami.fakeazon.modules.user.dto.LoginRequest;
+import com.github.michaelodusami.fakeazon.modules.user.dto.RefreshRequest;
 import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT) // singals to spring to use the SpringApplication as it's
@@ -90,6 +92,27 @@ class UserAuthControllerIntegrationTest {
         assertNotNull(token);
     }
 
+    @Test
+    void refresh_failsAfterPasswordChange() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest("Mike", "mike.refresh@gmail.com", "mikepass");
+        mockMvc.perform(post("/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)));
+
+        LoginRequest loginRequest = new LoginRequest("mike.refresh@gmail.com", "mikepass");
+        MvcResult login = mockMvc.perform(post("/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest))).andExpect(status().isOk()).andReturn();
+        AuthResponse authResponse = objectMapper.readValue(login.getResponse().getContentAsString(), AuthResponse.class);
+        String refreshToken = login.getResponse().getHeader(UserAuthController.REFRESH_TOKEN_HEADER);
+
+        mockMvc.perform(patch("/v1/users/" + authResponse.getId() + "/password")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + login.getResponse().getHeader(HttpHeaders.AUTHORIZATION))
+                .contentType(MediaType.TEXT_PLAIN).content("newpass")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/v1/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(refreshToken))))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void login_userDoesNotExist() throws Exception {
         LoginRequest loginRequest = new LoginRequest("mike@gmail.com", "mikepass");
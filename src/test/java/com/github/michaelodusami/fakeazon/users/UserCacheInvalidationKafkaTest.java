@@ -0,0 +1,174 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
+import com.github.michaelodusami.fakeazon.config.KafkaConfig;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidationListener;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidationPublisher;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
+import com.github.michaelodusami.fakeazon.security.TokenRevocationService;
+import com.github.michaelodusami.fakeazon.security.UserDetails;
+import com.github.michaelodusami.fakeazon.security.VerifiedToken;
+import com.github.michaelodusami.fakeazon.security.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@EmbeddedKafka(partitions = 1)
+@SpringJUnitConfig(classes = { CacheConfig.class, KafkaConfig.class, UserCacheInvalidator.class,
+        VerifiedTokenCache.class, UserCacheInvalidationPublisher.class, UserCacheInvalidationListener.class,
+        UserCacheInvalidationKafkaTest.TestBeans.class })
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "fakeazon.user-cache.invalidation.enabled=true",
+        "fakeazon.user-cache.invalidation.topic=" + UserCacheInvalidationKafkaTest.TOPIC,
+        "fakeazon.user-cache.invalidation.partitions=1" })
+class UserCacheInvalidationKafkaTest {
+
+    static final String TOPIC = "test.user-cache-invalidations";
+
+    @Configuration
+    static class TestBeans {
+
+        @Bean
+        static ConversionService conversionService() {
+            return new ApplicationConversionService();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // The listener starts at the latest offset, so records sent before it is assigned would be skipped
+        ContainerTestUtils.waitForAssignment(listenerRegistry.getListenerContainer(UserCacheInvalidationListener.LISTENER_ID),
+                broker.getPartitionsPerTopic());
+    }
+
+    @Test
+    void invalidationFromAnotherInstance_evictsLocalEntries() throws Exception {
+        cacheManager.getCache(CacheConfig.USERS_BY_ID).put(7L, new User());
+        cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).put("mike@x.com", new User());
+        VerifiedToken token = new VerifiedToken("mike@x.com", 7L, Instant.now(), Instant.now().plusSeconds(60),
+                Set.of("USER"), "jti-7");
+        verifiedTokenCache.put("token", token, new UserDetails(token));
+
+        kafkaTemplate.send(TOPIC, "{\"ids\":[7],\"emails\":[\"Mike@x.com\"]}");
+
+        awaitTrue(() -> cacheManager.getCache(CacheConfig.USERS_BY_ID).get(7L) == null
+                && cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).get("mike@x.com") == null
+                && verifiedTokenCache.get("token") == null);
+        verify(registeredEmailFilter, timeout(5_000)).add("Mike@x.com");
+    }
+
+    @Test
+    void revokedTokenFromAnotherInstance_isAddedToTheRevocationFilter() throws Exception {
+        kafkaTemplate.send(TOPIC, "{\"tokenIds\":[\"jti-7\"]}");
+
+        verify(tokenRevocationService, timeout(5_000)).add("jti-7");
+    }
+
+    @Test
+    void evict_isPublishedAndAppliedWithLag() throws Exception {
+        long applied = meterRegistry.get("user.cache.invalidation.lag").timer().count();
+
+        userCacheInvalidator.evict(8L, "old@x.com", "new@x.com");
+
+        // This instance consumes its own invalidations too
+        verify(registeredEmailFilter, timeout(5_000)).add("old@x.com");
+        verify(registeredEmailFilter, timeout(5_000)).add("new@x.com");
+        awaitTrue(() -> meterRegistry.get("user.cache.invalidation.lag").timer().count() > applied);
+        awaitTrue(() -> meterRegistry.get("user.cache.invalidations.published").tag("outcome", "sent")
+                .counter().count() > 0);
+    }
+
+    @Test
+    void malformedInvalidation_isSkipped() throws Exception {
+        cacheManager.getCache(CacheConfig.USERS_BY_ID).put(9L, new User());
+
+        kafkaTemplate.send(TOPIC, "{not json");
+        kafkaTemplate.send(TOPIC, "{\"ids\":[9]}");
+
+        // Records are applied in order, so the valid one being applied means the bad one was passed over
+        awaitTrue(() -> cacheManager.getCache(CacheConfig.USERS_BY_ID).get(9L) == null);
+        assertEquals(0, meterRegistry.get("user.cache.invalidations.published").tag("outcome", "failed")
+                .counter().count());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
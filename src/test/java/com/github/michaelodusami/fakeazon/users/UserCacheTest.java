@@ -0,0 +1,368 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.michaelodusami.fakeazon.config.CacheConfig;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.RefreshTokenService;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserEventOutbox;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserService;
+import com.github.michaelodusami.fakeazon.security.AuthFailureLogger;
+import com.github.michaelodusami.fakeazon.security.CustomUserDetailsService;
+import com.github.michaelodusami.fakeazon.security.JwtAuthFilter;
+import com.github.michaelodusami.fakeazon.security.JwtService;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
+import com.github.michaelodusami.fakeazon.security.TokenRevocationService;
+import com.github.michaelodusami.fakeazon.security.VerifiedToken;
+import com.github.michaelodusami.fakeazon.security.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringJUnitConfig(classes = { CacheConfig.class, UserCacheInvalidator.class, UserService.class,
+        CustomUserDetailsService.class, VerifiedTokenCache.class, JwtAuthFilter.class, AuthFailureLogger.class,
+        UserCacheTest.TestBeans.class })
+class UserCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Configuration
+    static class TestBeans {
+
+        @Bean
+        static ConversionService conversionService() {
+            return new ApplicationConversionService();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        }
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @MockitoBean
+    private UserEventOutbox userEventOutbox;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        verifiedTokenCache.invalidateAll();
+        user = User.builder().id(1L).name("Mike").email("mike@x.com").password("hash")
+                .roles(EnumSet.of(UserRole.ROLE_USER)).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail(any())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(registeredEmailFilter.mightBeRegistered(any())).thenReturn(true);
+        when(jwtService.verify(TOKEN)).thenReturn(new VerifiedToken("mike@x.com", 1L, Instant.now(),
+                Instant.now().plusSeconds(60), Set.of("USER"), "jti-1"));
+    }
+
+    @Test
+    void findById_isServedFromCacheAfterFirstLoad() {
+        User first = userService.findById(1L).get();
+        User second = userService.findById(1L).get();
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void cachedUsers_areNotSharedBetweenCallers() {
+        User loaded = userService.findByEmail("mike@x.com").get();
+        loaded.setName("Changed");
+        loaded.getRoles().add(UserRole.ROLE_ADMIN);
+
+        User cached = userService.findByEmail("mike@x.com").get();
+
+        assertNotSame(user, cached);
+        assertEquals("Mike", cached.getName());
+        assertEquals(EnumSet.of(UserRole.ROLE_USER), cached.getRoles());
+        verify(userRepository, times(1)).findByEmail(any());
+    }
+
+    @Test
+    void findById_doesNotCacheUnknownIds() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        userService.findById(2L);
+        userService.findById(2L);
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void emailLookups_areKeyedCaseInsensitively() {
+        userService.findByEmail("Mike@X.com");
+        userService.findByEmail("mike@x.com");
+        userDetailsService.loadUserByUsername("MIKE@x.com");
+        userDetailsService.loadUserByUsername("mike@x.com");
+
+        verify(userRepository, times(2)).findByEmail(any());
+    }
+
+    @Test
+    void updateUser_evictsOldAndNewEmailAndId() {
+        userService.findById(1L);
+        userService.findByEmail("mike@x.com");
+        userDetailsService.loadUserByUsername("mike@x.com");
+
+        User changes = new User();
+        changes.setEmail("michael@x.com");
+        userService.updateUser(1L, changes);
+
+        userService.findById(1L);
+        userService.findByEmail("mike@x.com");
+        userDetailsService.loadUserByUsername("mike@x.com");
+
+        // One load before the update, one inside it and one after the eviction
+        verify(userRepository, times(3)).findById(1L);
+        verify(userRepository, times(4)).findByEmail(any());
+    }
+
+    @Test
+    void changePassword_evictsLoginDetails() {
+        when(passwordEncoder.encode("newpass")).thenReturn("newhash");
+        userDetailsService.loadUserByUsername("mike@x.com");
+
+        userService.changePassword(1L, "newpass");
+
+        assertEquals("newhash", userDetailsService.loadUserByUsername("mike@x.com").getPassword());
+        verify(userRepository, times(2)).findByEmail(any());
+    }
+
+    @Test
+    void deleteUser_evictsTheUser() {
+        userService.findById(1L);
+
+        userService.deleteUser(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), userService.findById(1L));
+    }
+
+    @Test
+    void updateUser_nextRequestWithCachedTokenSeesNewRoles() throws Exception {
+        assertEquals(Set.of("USER"), authenticate());
+        assertEquals(Set.of("USER"), authenticate());
+        verify(jwtService, times(1)).verify(TOKEN);
+
+        User changes = new User();
+        changes.getRoles().add(UserRole.ROLE_ADMIN);
+        userService.updateUser(1L, changes);
+
+        assertEquals(Set.of("USER", "ADMIN"), authenticate());
+        verify(jwtService, times(2)).verify(TOKEN);
+    }
+
+    @Test
+    void deleteUser_nextRequestWithCachedTokenIsNotAuthenticated() throws Exception {
+        assertEquals(Set.of("USER"), authenticate());
+
+        userService.deleteUser(1L);
+        when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+
+        assertNull(authenticate());
+    }
+
+    @Test
+    void loginDetails_concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user);
+        });
+
+        List<CompletableFuture<?>> logins = new ArrayList<>();
+        logins.add(CompletableFuture.runAsync(() -> userDetailsService.loadUserByUsername("mike@x.com")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++) {
+            logins.add(CompletableFuture.runAsync(() -> userDetailsService.loadUserByUsername("Mike@x.com")));
+        }
+        Thread.sleep(100); // Let the other logins reach the cache while the first load is blocked
+        release.countDown();
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        verify(userRepository, times(1)).findByEmail(any());
+    }
+
+    @Test
+    void loginDetails_unregisteredEmailIsRejectedBeforeLoading() {
+        when(registeredEmailFilter.mightBeRegistered("ghost@x.com")).thenReturn(false);
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost@x.com"));
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void loginDetails_staleEntryIsServedWhileReloading() throws Exception {
+        var refresh = loginDetails().policy().refreshAfterWrite().orElseThrow();
+        Duration refreshAfter = refresh.getRefreshesAfter();
+        try {
+            userDetailsService.loadUserByUsername("mike@x.com");
+            refresh.setRefreshesAfter(Duration.ofMillis(1));
+            user.setPassword("newhash");
+            CountDownLatch release = new CountDownLatch(1);
+            when(userRepository.findByEmail(any())).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(user);
+            });
+            Thread.sleep(10);
+
+            // The read starts the reload but does not wait for it
+            assertEquals("hash", userDetailsService.loadUserByUsername("mike@x.com").getPassword());
+            release.countDown();
+            for (int i = 0; i < 100 && "hash".equals(userDetailsService.loadUserByUsername("mike@x.com").getPassword()); i++) {
+                Thread.sleep(10);
+            }
+            assertEquals("newhash", userDetailsService.loadUserByUsername("mike@x.com").getPassword());
+        } finally {
+            refresh.setRefreshesAfter(refreshAfter);
+            // The reads above may have started more reloads; let them finish before the next test
+            for (int i = 0; i < 100 && !loginDetails().policy().refreshes().isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    void loginDetails_reloadOfDeletedUserRemovesEntry() {
+        userDetailsService.loadUserByUsername("mike@x.com");
+        when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+
+        loginDetails().refresh("mike@x.com").join();
+
+        assertNull(loginDetails().getIfPresent("mike@x.com"));
+    }
+
+    @Test
+    void hitRatio_isExportedPerCache() {
+        userService.findById(1L);
+        userService.findById(1L);
+
+        // Statistics accumulate over the whole context, so compare against the cache's own numbers
+        CacheStats stats = ((CaffeineCache) cacheManager.getCache(CacheConfig.USERS_BY_ID)).getNativeCache().stats();
+        double ratio = meterRegistry.get("cache.hit.ratio").tag("cache", CacheConfig.USERS_BY_ID).gauge().value();
+        assertEquals(stats.hitRate(), ratio);
+        assertTrue(ratio > 0);
+    }
+
+    /**
+     * Runs one request carrying {@link #TOKEN} through the auth filter.
+     *
+     * @return the authorities it was authenticated with, or null if it was not authenticated.
+     */
+    private Set<String> authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN);
+        try {
+            jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null ? null : AuthorityUtils.authorityListToSet(authentication.getAuthorities());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LoadingCache<Object, Object> loginDetails() {
+        return (LoadingCache<Object, Object>) ((CaffeineCache) cacheManager.getCache(CacheConfig.USER_DETAILS))
+                .getNativeCache();
+    }
+}
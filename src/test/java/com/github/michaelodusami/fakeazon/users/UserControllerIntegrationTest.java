@@ -11,7 +11,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.EnumSet;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +33,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.michaelodusami.fakeazon.modules.user.dto.LoginRequest;
 import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -76,11 +77,11 @@ class UserControllerIntegrationTest {
                 mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).dispatchOptions(true)
                                 .addFilters(filterChainProxy).build();
                 admin = User.builder().name("Admin").password("admimnpassword").email("admin@admin.com")
-                                .roles(Set.of("ROLE_ADMIN")).createdAt(LocalDateTime.now())
+                                .roles(EnumSet.of(UserRole.ROLE_ADMIN)).createdAt(LocalDateTime.now())
                                 .updatedAt(LocalDateTime.now()).build();
 
                 user = User.builder().name("User").password("userpass").email("user@user.com")
-                                .roles(Set.of("ROLE_USER"))
+                                .roles(EnumSet.of(UserRole.ROLE_USER))
                                 .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
 
                 // register both users
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.security.core.GrantedAuthority;
 
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 import com.github.michaelodusami.fakeazon.security.UserDetails;
 
 class UserDetailsUnitTest {
@@ -21,9 +22,11 @@ class UserDetailsUnitTest {
     @BeforeEach
     void setUp() {
         user = new User();
+        user.setId(7L);
+        user.setName("John Doe");
         user.setEmail("john.doe@example.com");
         user.setPassword("encodedPassword");
-        user.getRoles().addAll(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        user.getRoles().addAll(Set.of(UserRole.ROLE_USER, UserRole.ROLE_ADMIN));
 
         userDetails = new UserDetails(user);
     }
@@ -32,7 +35,7 @@ class UserDetailsUnitTest {
     void testGetAuthorities() {
         Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
 
-        Set<String> expectedRoles = new HashSet<>(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        Set<String> expectedRoles = new HashSet<>(Set.of("USER", "ADMIN"));
         Set<String> actualRoles = authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
@@ -40,6 +43,12 @@ class UserDetailsUnitTest {
         assertEquals(expectedRoles, actualRoles, "Authorities should match the roles assigned to the user");
     }
 
+    @Test
+    void testGetIdAndName() {
+        assertEquals(7L, userDetails.getId(), "Id should match the user's id");
+        assertEquals("John Doe", userDetails.getName(), "Name should match the user's name");
+    }
+
     @Test
     void testGetPassword() {
         assertEquals("encodedPassword", userDetails.getPassword(), "Password should match the user's password");
@@ -55,7 +64,7 @@ class UserDetailsUnitTest {
         assertEquals("john.doe@example.com", userDetails.getUsername(), "Email should be initialized correctly");
         assertEquals("encodedPassword", userDetails.getPassword(), "Password should be initialized correctly");
 
-        Set<String> expectedAuthorities = new HashSet<>(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        Set<String> expectedAuthorities = new HashSet<>(Set.of("USER", "ADMIN"));
         Set<String> actualAuthorities = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
@@ -0,0 +1,102 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserExportService;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new UserExportService(userRepository, objectMapper, entityManager, transactionManager);
+    }
+
+    @Test
+    void export_writesOneLinePerUserWithoutPasswords() throws IOException {
+        User alice = user(1L, "alice@x.com", UserRole.ROLE_USER, UserRole.ROLE_ADMIN);
+        alice.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        User bob = user(2L, "bob@x.com", UserRole.ROLE_USER);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAll()).thenReturn(Stream.of(alice, bob).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = exportService.exportUsers(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("alice@x.com", first.get("email").asText());
+        assertEquals(List.of("USER", "ADMIN"), List.of(first.get("roles").get(0).asText(), first.get("roles").get(1).asText()));
+        assertEquals("2024-01-02T03:04:05", first.get("createdAt").asText());
+        assertTrue(first.get("updatedAt").isNull());
+        assertFalse(first.has("password"));
+        assertFalse(lines[1].startsWith(" "));
+
+        verify(entityManager).detach(alice);
+        verify(entityManager).detach(bob);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_ofEmptyTableWritesNothing() throws IOException {
+        when(userRepository.streamAll()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportUsers(output));
+        assertEquals(0, output.size());
+    }
+
+    private static User user(Long id, String email, UserRole first, UserRole... rest) {
+        return User.builder()
+                .id(id)
+                .name("Name " + id)
+                .email(email)
+                .password("hash")
+                .roles(EnumSet.of(first, rest))
+                .build();
+    }
+}
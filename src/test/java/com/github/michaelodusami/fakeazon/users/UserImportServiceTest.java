@@ -0,0 +1,256 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserImportResult;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserImportResult.Status;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserEventOutbox;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserImportService;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserImportService.Format;
+import com.github.michaelodusami.fakeazon.security.PasswordHashingUnavailableException;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
+
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = service(500);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.findRegisteredEmails(any())).thenReturn(List.of());
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(nextId.getAndIncrement()));
+            return users;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.close();
+    }
+
+    @Test
+    void ndjson_reportsEveryRowInOrder() throws IOException {
+        when(userRepository.findRegisteredEmails(any())).thenReturn(List.of("mike@x.com"));
+
+        List<UserImportResult> results = run(Format.NDJSON, """
+                {"name":"Alice A","email":"alice@x.com","password":"secret"}
+                {"name":"Alice B","email":"ALICE@x.com","password":"secret"}
+
+                {not json
+                {"name":"C","email":"not-an-email","password":"secret"}
+                {"name":"Mike M","email":"Mike@x.com","password":"secret"}
+                """);
+
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.INVALID, Status.INVALID, Status.DUPLICATE),
+                results.stream().map(UserImportResult::getStatus).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), results.stream().map(UserImportResult::getRow).toList());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals("Email already registered", results.get(4).getError());
+        verify(registeredEmailFilter).add("alice@x.com");
+        verify(registeredEmailFilter, times(1)).add(anyString());
+        verify(userCacheInvalidator, times(1)).evictAll(anyList());
+        verify(userEventOutbox).recordAll(eq(UserEventType.USER_REGISTERED), anyList());
+    }
+
+    @Test
+    void ndjson_storesHashedPasswordsWithUserRole() throws IOException {
+        List<List<User>> saved = captureSaveAll();
+
+        run(Format.NDJSON, "{\"name\":\"Alice A\",\"email\":\"alice@x.com\",\"password\":\"secret\"}\n");
+
+        User user = saved.get(0).get(0);
+        assertEquals("hash:secret", user.getPassword());
+        assertEquals(Set.of(UserRole.ROLE_USER), user.getRoles());
+    }
+
+    @Test
+    void import_writesOneBatchPerChunk() throws IOException {
+        importService.close();
+        importService = service(2);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"name\":\"User ").append(i).append("\",\"email\":\"u").append(i)
+                    .append("@x.com\",\"password\":\"secret\"}\n");
+        }
+
+        List<UserImportResult> results = run(Format.NDJSON, body.toString());
+
+        assertEquals(5, results.stream().filter(result -> result.getStatus() == Status.CREATED).count());
+        verify(userRepository, times(3)).saveAll(any());
+        verify(userRepository, times(3)).findRegisteredEmails(any());
+    }
+
+    @Test
+    void csv_mapsColumnsByHeaderAndHandlesQuotes() throws IOException {
+        List<List<User>> saved = captureSaveAll();
+
+        List<UserImportResult> results = run(Format.CSV, String.join("\n",
+                "email,Name,password",
+                "\"eve@x.com\",\"Eve, Jr.\",secret",
+                "frank@x.com,\"Frank \"\"F\"\"\",secret",
+                "gina@x.com,\"Gina"));
+
+        assertEquals(List.of(Status.CREATED, Status.CREATED, Status.INVALID),
+                results.stream().map(UserImportResult::getStatus).toList());
+        assertEquals("Eve, Jr.", saved.get(0).get(0).getName());
+        assertEquals("Frank \"F\"", saved.get(0).get(1).getName());
+    }
+
+    @Test
+    void csv_keepsPasswordWhitespaceButStripsNameAndEmail() throws IOException {
+        List<List<User>> saved = captureSaveAll();
+
+        run(Format.CSV, String.join("\n",
+                "name,email,password",
+                " Hank H , hank@x.com ,  pass word  ",
+                "Ivy I,ivy@x.com,\" quoted \""));
+
+        User hank = saved.get(0).get(0);
+        assertEquals("Hank H", hank.getName());
+        assertEquals("hank@x.com", hank.getEmail());
+        assertEquals("hash:  pass word  ", hank.getPassword());
+        assertEquals("hash: quoted ", saved.get(0).get(1).getPassword());
+    }
+
+    @Test
+    void csv_withoutRequiredColumnsIsRejected() throws IOException {
+        List<UserImportResult> results = run(Format.CSV, "email,password\na@x.com,secret\n");
+
+        assertEquals(1, results.size());
+        assertEquals(0L, results.get(0).getRow());
+        assertEquals(Status.INVALID, results.get(0).getStatus());
+    }
+
+    @Test
+    void batchConflict_fallsBackToRowByRowInserts() throws IOException {
+        doThrow(duplicateEmail()).when(userRepository).saveAll(any());
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getEmail().equals("taken@x.com")) {
+                throw duplicateEmail();
+            }
+            user.setId(nextId.getAndIncrement());
+            return user;
+        });
+
+        List<UserImportResult> results = run(Format.NDJSON, """
+                {"name":"Alice A","email":"alice@x.com","password":"secret"}
+                {"name":"Taken T","email":"taken@x.com","password":"secret"}
+                """);
+
+        assertEquals(Status.CREATED, results.get(0).getStatus());
+        assertEquals(Status.DUPLICATE, results.get(1).getStatus());
+        assertNull(results.get(1).getId());
+    }
+
+    @Test
+    void hashing_retriesWhileEncoderShedsLoad() throws IOException {
+        when(passwordEncoder.encode("secret"))
+                .thenThrow(new PasswordHashingUnavailableException("busy", Duration.ZERO))
+                .thenReturn("hash:secret");
+
+        List<UserImportResult> results = run(Format.NDJSON,
+                "{\"name\":\"Alice A\",\"email\":\"alice@x.com\",\"password\":\"secret\"}\n");
+
+        assertEquals(Status.CREATED, results.get(0).getStatus());
+        verify(passwordEncoder, times(2)).encode("secret");
+    }
+
+    private UserImportService service(int chunkSize) {
+        return new UserImportService(userRepository, registeredEmailFilter, userCacheInvalidator, userEventOutbox,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, chunkSize, 2, 3);
+    }
+
+    private List<UserImportResult> run(Format format, String body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+
+        List<UserImportResult> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, UserImportResult.class));
+        }
+        return results;
+    }
+
+    private List<List<User>> captureSaveAll() {
+        List<List<User>> saved = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            saved.add(List.copyOf(users));
+            return users;
+        }).when(userRepository).saveAll(any());
+        return saved;
+    }
+
+    private static DataIntegrityViolationException duplicateEmail() {
+        return new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate key", new SQLException(), User.EMAIL_UNIQUE_INDEX));
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.michaelodusami.fakeazon.modules.user.entity.UserOutboxEvent;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserOutboxRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserOutboxRelay;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@EmbeddedKafka(partitions = 2, topics = UserOutboxRelayTest.TOPIC)
+class UserOutboxRelayTest {
+
+    static final String TOPIC = "test.user-events";
+
+    private final UserOutboxRepository userOutboxRepository = mock(UserOutboxRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserOutboxRelay relay;
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddedKafkaBroker broker = EmbeddedKafkaCondition.getBroker();
+        relay = relay(broker.getBrokersAsString(), Duration.ofSeconds(10), meterRegistry);
+
+        Map<String, Object> consumerProperties = KafkaTestUtils.consumerProps("user-events-test", "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProperties, new StringDeserializer(),
+                new StringDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        relay.close();
+    }
+
+    @Test
+    void relay_publishesEveryBatchInOrderThenDeletesIt() {
+        List<UserOutboxEvent> first = List.of(event(1, 7L), event(2, 8L));
+        List<UserOutboxEvent> second = List.of(event(3, 7L));
+        when(userOutboxRepository.tryLockRelay()).thenReturn(true);
+        when(userOutboxRepository.findOldest(2)).thenReturn(first, second);
+
+        relay.relay();
+
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 3).forEach(records::add);
+        assertEquals(3, records.size());
+        // Events of one user share a key, so they stay in id order on one partition
+        List<String> user7 = records.stream().filter(r -> r.key().equals("7"))
+                .map(r -> new String(r.headers().lastHeader(UserOutboxRelay.EVENT_ID_HEADER).value(),
+                        StandardCharsets.UTF_8))
+                .toList();
+        assertEquals(List.of("1", "3"), user7);
+        verify(userOutboxRepository).deleteAllInBatch(first);
+        verify(userOutboxRepository).deleteAllInBatch(second);
+        assertEquals(3, meterRegistry.get("user.outbox.relayed").counter().count());
+    }
+
+    @Test
+    void relay_withoutTheLockPublishesNothing() {
+        when(userOutboxRepository.tryLockRelay()).thenReturn(false);
+
+        relay.relay();
+
+        verify(userOutboxRepository, never()).findOldest(anyInt());
+        verify(userOutboxRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void relay_failedBatchIsRolledBackAndKept() {
+        when(userOutboxRepository.tryLockRelay()).thenReturn(true);
+        when(userOutboxRepository.findOldest(2)).thenReturn(List.of(event(1, 7L)));
+        when(userOutboxRepository.count()).thenReturn(1L);
+        when(userOutboxRepository.findOldestCreatedAt()).thenReturn(Instant.now().minusSeconds(60));
+        MeterRegistry unreachableRegistry = new SimpleMeterRegistry();
+        UserOutboxRelay unreachable = relay("localhost:1", Duration.ofSeconds(1), unreachableRegistry);
+
+        try {
+            unreachable.relay();
+        } finally {
+            unreachable.close();
+        }
+
+        verify(userOutboxRepository, never()).deleteAllInBatch(anyList());
+        verify(transactionManager).rollback(any());
+        assertEquals(1, unreachableRegistry.get("user.outbox.relay.failures").counter().count());
+        assertEquals(1, unreachableRegistry.get("user.outbox.backlog").gauge().value());
+        assertTrue(unreachableRegistry.get("user.outbox.oldest.age").gauge().value() >= 60);
+    }
+
+    private UserOutboxRelay relay(String bootstrapServers, Duration sendTimeout, MeterRegistry registry) {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of(bootstrapServers));
+        return new UserOutboxRelay(userOutboxRepository, new TransactionTemplate(transactionManager),
+                kafkaProperties, TOPIC, 2, sendTimeout, registry);
+    }
+
+    private static UserOutboxEvent event(long id, Long userId) {
+        return UserOutboxEvent.builder()
+                .id(id)
+                .userId(userId)
+                .type(UserEventType.USER_REGISTERED)
+                .payload("{\"userId\":" + userId + "}")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
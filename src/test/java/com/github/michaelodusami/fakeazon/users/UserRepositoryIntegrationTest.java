@@ -0,0 +1,108 @@
+package com.github.michaelodusami.fakeazon.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserPage;
+import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
+import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that list queries load and filter roles without extra queries per user.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryIntegrationTest {
+
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    static {
+        postgresContainer.start();
+        System.setProperty("spring.datasource.url", postgresContainer.getJdbcUrl());
+        System.setProperty("spring.datasource.username", postgresContainer.getUsername());
+        System.setProperty("spring.datasource.password", postgresContainer.getPassword());
+    }
+
+    private static final int USERS = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String batch;
+
+    @BeforeEach
+    void setUp() {
+        batch = UUID.randomUUID().toString();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            EnumSet<UserRole> roles = i % 3 == 0 ? EnumSet.of(UserRole.ROLE_USER, UserRole.ROLE_ADMIN)
+                    : EnumSet.of(UserRole.ROLE_USER);
+            users.add(User.builder().name("User " + i).email(i + "." + batch + "@x.com").password("hash")
+                    .roles(roles).build());
+        }
+        userRepository.saveAll(users);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_loadsRolesInTheSameQuery() {
+        List<User> users = seeded(userRepository.findAll());
+
+        assertEquals(USERS, users.size());
+        assertTrue(users.stream().allMatch(user -> user.getRoles().contains(UserRole.ROLE_USER)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findUsersByRole_returnsDistinctUsersWithAllRolesInOneQuery() {
+        List<User> admins = seeded(userRepository.findUsersByRole(UserRole.ROLE_ADMIN));
+
+        assertEquals(USERS / 3, admins.size());
+        assertEquals(admins.size(), admins.stream().map(User::getId).distinct().count());
+        assertTrue(admins.stream()
+                .allMatch(user -> user.getRoles().equals(EnumSet.of(UserRole.ROLE_USER, UserRole.ROLE_ADMIN))));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findPage_filtersByRoleInOneQuery() {
+        UserPage page = userService.findPage(null, 500, "ADMIN", null, null);
+
+        assertEquals(USERS / 3, seeded(page.getUsers()).size());
+        assertTrue(page.getUsers().stream().allMatch(user -> user.getRoles().contains(UserRole.ROLE_ADMIN)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<User> seeded(List<User> users) {
+        return users.stream().filter(user -> user.getEmail().contains(batch)).toList();
+    }
+}
@@ -6,17 +6,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 
 import com.github.michaelodusami.fakeazon.modules.user.dto.RegisterRequest;
+import com.github.michaelodusami.fakeazon.modules.user.dto.UserPage;
 import com.github.michaelodusami.fakeazon.modules.user.entity.User;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserEventType;
+import com.github.michaelodusami.fakeazon.modules.user.enums.UserRole;
 import com.github.michaelodusami.fakeazon.modules.user.repository.UserRepository;
+import com.github.michaelodusami.fakeazon.modules.user.service.RefreshTokenService;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserCacheInvalidator;
+import com.github.michaelodusami.fakeazon.modules.user.service.UserEventOutbox;
 import com.github.michaelodusami.fakeazon.modules.user.service.UserService;
+import com.github.michaelodusami.fakeazon.security.RegisteredEmailFilter;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +45,21 @@ class UserServiceUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private UserService userService;
 
@@ -41,7 +72,7 @@ class UserServiceUnitTest {
         user.setName("John Doe");
         user.setEmail("john.doe@example.com");
         user.setPassword("password123");
-        user.getRoles().add("ROLE_USER");
+        user.getRoles().add(UserRole.ROLE_USER);
     }
 
     
@@ -89,31 +120,59 @@ class UserServiceUnitTest {
 
         RegisterRequest registerRequest = new RegisterRequest("John Doe", "john.doe@example.com", "password123");
 
-        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         Optional<User> savedUser = userService.save(registerRequest);
 
         assertTrue(savedUser.isPresent());
         assertEquals("John Doe", savedUser.get().getName());
-        verify(userRepository, times(1)).findByEmail("john.doe@example.com");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userEventOutbox).record(UserEventType.USER_REGISTERED, user);
     }
 
     @Test
     void testSaveUserWithDuplicateEmailThrowsException() {
         RegisterRequest registerRequest = new RegisterRequest();
-        registerRequest.setEmail("john.doe@example.com");
+        registerRequest.setEmail("John.Doe@example.com");
+        registerRequest.setPassword("password123");
 
-        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate key", new SQLException(), User.EMAIL_UNIQUE_INDEX)));
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             userService.save(registerRequest);
         });
 
         assertEquals("Email already registered", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail("john.doe@example.com");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testUpdateUserWithDuplicateEmailThrowsException() {
+        User updatedUser = new User();
+        updatedUser.setEmail("Taken@example.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate key", new SQLException(), User.EMAIL_UNIQUE_INDEX)));
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.updateUser(1L, updatedUser));
+
+        assertEquals("Email already registered", exception.getMessage());
+        verify(userCacheInvalidator, never()).evict(any(), any(String[].class));
+    }
+
+    @Test
+    void testSaveUserRethrowsOtherIntegrityViolations() {
+        RegisterRequest registerRequest = new RegisterRequest("John Doe", "john.doe@example.com", "password123");
+
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("other",
+                new ConstraintViolationException("not null", new SQLException(), "users_name_not_null")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.save(registerRequest));
     }
 
     @Test
@@ -133,7 +192,7 @@ class UserServiceUnitTest {
         updatedUser.setEmail("jane.doe@example.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 
         Optional<User> result = userService.updateUser(1L, updatedUser);
 
@@ -141,7 +200,50 @@ class UserServiceUnitTest {
         assertEquals("Jane Doe", result.get().getName());
         assertEquals("jane.doe@example.com", result.get().getEmail());
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userCacheInvalidator).evict(1L, "john.doe@example.com", "jane.doe@example.com");
+    }
+
+    @Test
+    void testUpdateUserRecordsRoleChange() {
+        User updatedUser = new User();
+        updatedUser.getRoles().add(UserRole.ROLE_ADMIN);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(1L, updatedUser);
+
+        verify(userEventOutbox).record(UserEventType.USER_ROLES_CHANGED, user);
+    }
+
+    @Test
+    void testUpdateUserWithoutRoleChangeRecordsNothing() {
+        User updatedUser = new User();
+        updatedUser.setName("Jane Doe");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(1L, updatedUser);
+
+        verify(userEventOutbox, never()).record(any(), any());
+        verify(refreshTokenService, never()).revokeAll(any());
+    }
+
+    @Test
+    void testUpdateUserWithPasswordRevokesRefreshTokens() {
+        User updatedUser = new User();
+        updatedUser.setPassword("newPassword");
+
+        when(passwordEncoder.encode("newPassword")).thenReturn("encodedPassword");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(1L, updatedUser);
+
+        assertEquals("encodedPassword", user.getPassword());
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
@@ -154,16 +256,54 @@ class UserServiceUnitTest {
         assertTrue(isChanged);
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(refreshTokenService).revokeAll(1L);
+        verify(userCacheInvalidator).evict(user);
+    }
+
+    @Test
+    void testChangePasswordOfUnknownUserRevokesNothing() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(userService.changePassword(2L, "newPassword"));
+
+        verify(refreshTokenService, never()).revokeAll(any());
     }
 
     @Test
     void testFindUsersByRole() {
-        when(userRepository.findUsersByRole("ROLE_USER")).thenReturn(List.of(user));
+        when(userRepository.findUsersByRole(UserRole.ROLE_USER)).thenReturn(List.of(user));
 
-        List<User> users = userService.findUsersByRole("ROLE_USER");
+        List<User> users = userService.findUsersByRole("USER");
 
         assertEquals(1, users.size());
         assertEquals("John Doe", users.get(0).getName());
-        verify(userRepository, times(1)).findUsersByRole("ROLE_USER");
+        verify(userRepository, times(1)).findUsersByRole(UserRole.ROLE_USER);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_returnsCursorWhenMoreRowsExist() {
+        List<User> rows = List.of(User.builder().id(1L).build(), User.builder().id(2L).build(),
+                User.builder().id(3L).build());
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+
+        UserPage page = userService.findPage(null, 2, null, null, null);
+
+        assertEquals(List.of(1L, 2L), page.getUsers().stream().map(User::getId).toList());
+        assertNotNull(page.getNextCursor());
+
+        // The cursor is accepted for the next page, which is the last one
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(List.of(rows.get(2)));
+        UserPage next = userService.findPage(page.getNextCursor(), 2, null, null, null);
+
+        assertEquals(1, next.getUsers().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> userService.findPage("not-a-cursor", 10, null, null, null));
+        verify(userRepository, never()).findBy(any(Specification.class), any());
     }
 }